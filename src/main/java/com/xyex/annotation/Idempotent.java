@@ -0,0 +1,27 @@
+package com.xyex.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等注解
+ * 用于标记支持 Idempotency-Key 请求头的接口
+ * <p>
+ * 请求携带 Idempotency-Key 时，同一用户、同一接口、同一幂等键的重复请求直接返回首次执行的结果，
+ * 不再调用业务方法；并发的重复请求等待首次执行完成。未携带请求头时按普通请求处理。
+ * <p>
+ * 使用示例：
+ * <pre>
+ * {@code @Idempotent}
+ * {@code @PostMapping("/order/add")}
+ * public void addOrder(@RequestBody CommodityOrderDTO dto) { }
+ * </pre>
+ *
+ * @author xujun
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
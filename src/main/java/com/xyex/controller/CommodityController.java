@@ -1,23 +1,46 @@
 package com.xyex.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.xyex.annotation.Idempotent;
+import com.xyex.annotation.RequireRole;
 import com.xyex.entity.model.Commodity;
 import com.xyex.entity.model.CommodityOrder;
 import com.xyex.entity.model.CommodityScore;
 import com.xyex.entity.model.CommodityType;
+import com.xyex.entity.req.CommodityBulkDTO;
 import com.xyex.entity.req.CommodityOrderDTO;
 import com.xyex.entity.req.CommodityQueryDTO;
 import com.xyex.entity.req.CommodityScoreDTO;
 import com.xyex.entity.req.CommodityTypeDTO;
+import com.xyex.entity.req.FlashSaleDTO;
+import com.xyex.entity.res.BulkResultVO;
+import com.xyex.entity.res.CommodityCardVO;
+import com.xyex.entity.res.CommodityFacetVO;
+import com.xyex.entity.res.CommoditySuggestVO;
+import com.xyex.entity.res.FlashSaleTicketVO;
+import com.xyex.entity.res.FlashSaleVO;
+import com.xyex.entity.res.ImportJobVO;
+import com.xyex.entity.res.SimilarItemVO;
+import com.xyex.entity.res.TrendingItemVO;
+import com.xyex.infrastructure.cache.TwoLevelCache;
+import com.xyex.infrastructure.utils.OptimisticRetryTemplate;
+import com.xyex.service.order.OrderIngestionPipeline;
 import com.xyex.service.CommodityService;
+import com.xyex.service.trending.TrendingWindow;
+import com.xyex.shared.enums.UserConstant;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * 商品管理控制器
@@ -36,17 +59,66 @@ public class CommodityController {
      */
     @GetMapping("/list")
     @Operation(summary = "分页查询商品列表")
-    public Page<Commodity> listCommodity(CommodityQueryDTO queryDTO) {
+    public Page<CommodityCardVO> listCommodity(CommodityQueryDTO queryDTO, WebRequest request) {
+        // 先取 ETag 再查询，命中时直接返回 304
+        if (request.checkNotModified(commodityService.getCommodityListETag())) {
+            return null;
+        }
         return commodityService.listCommodity(queryDTO);
     }
 
+    /**
+     * 商品分面统计
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "商品分面统计")
+    public CommodityFacetVO getFacets(CommodityQueryDTO queryDTO) {
+        return commodityService.getFacets(queryDTO);
+    }
+
+    /**
+     * 热门商品排行
+     */
+    @GetMapping("/trending")
+    @Operation(summary = "热门商品排行")
+    public List<TrendingItemVO> listTrending(@RequestParam(defaultValue = "DAY") TrendingWindow window,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        return commodityService.listTrending(window, limit);
+    }
+
+    /**
+     * 商品名称补全
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "商品名称补全")
+    public List<CommoditySuggestVO> suggestCommodity(@RequestParam String prefix,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return commodityService.suggestCommodity(prefix, limit);
+    }
+
+    /**
+     * 相似商品
+     */
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "相似商品")
+    public List<SimilarItemVO> listSimilar(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        return commodityService.listSimilar(id, limit);
+    }
+
     /**
      * 获取商品详情
      */
     @GetMapping("/{id}")
     @Operation(summary = "获取商品详情")
-    public Commodity getCommodityDetail(@PathVariable Long id) {
-        return commodityService.getCommodityDetail(id);
+    public Commodity getCommodityDetail(@PathVariable Long id, WebRequest request, HttpServletResponse response) {
+        // 重新验证命中时不计入浏览量
+        if (request.checkNotModified(commodityService.getCommodityDetailETag(id))) {
+            return null;
+        }
+        Commodity detail = commodityService.getCommodityDetail(id);
+        // 响应体包含本次浏览，按返回内容重新生成 ETag
+        response.setHeader(HttpHeaders.ETAG, commodityService.getCommodityDetailETag(detail));
+        return detail;
     }
 
     /**
@@ -76,6 +148,56 @@ public class CommodityController {
         commodityService.deleteCommodity(commodityIds);
     }
 
+    /**
+     * 批量删除商品
+     */
+    @DeleteMapping("/bulk/delete")
+    @Operation(summary = "批量删除商品")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public BulkResultVO bulkDeleteCommodity(@RequestBody List<Long> commodityIds) {
+        return commodityService.bulkDeleteCommodity(commodityIds);
+    }
+
+    /**
+     * 批量更新商品（上下架、价格、分类）
+     */
+    @PutMapping("/bulk/update")
+    @Operation(summary = "批量更新商品")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public BulkResultVO bulkUpdateCommodity(@RequestBody CommodityBulkDTO bulkDTO) {
+        return commodityService.bulkUpdateCommodity(bulkDTO);
+    }
+
+    /**
+     * 导入商品（异步任务）
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "导入商品")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public ImportJobVO importCommodity(@RequestParam("file") MultipartFile file) {
+        return commodityService.importCommodity(file);
+    }
+
+    /**
+     * 查询商品导入任务状态
+     */
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "查询商品导入任务状态")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public ImportJobVO getImportJob(@PathVariable String jobId) {
+        return commodityService.getImportJob(jobId);
+    }
+
+    /**
+     * 导出商品（流式）
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出商品")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public void exportCommodity(CommodityQueryDTO queryDTO, HttpServletResponse response) {
+        commodityService.exportCommodity(queryDTO, response);
+    }
+
     /**
      * 购买商品
      */
@@ -84,14 +206,84 @@ public class CommodityController {
     public void buyCommodity(@RequestBody Commodity commodity) {
         commodityService.buyCommodity(commodity);
     }
+    /**
+     * 商品详情缓存统计
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "商品详情缓存统计")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public TwoLevelCache.Stats getDetailCacheStats() {
+        return commodityService.getDetailCacheStats();
+    }
+    /**
+     * 订单写入流水线统计
+     */
+    @GetMapping("/order/writer/stats")
+    @Operation(summary = "订单写入流水线统计")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public OrderIngestionPipeline.Stats getOrderWriterStats() {
+        return commodityService.getOrderWriterStats();
+    }
+    /**
+     * 商品写入争用统计
+     */
+    @GetMapping("/write/contention")
+    @Operation(summary = "商品写入争用统计")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public List<OptimisticRetryTemplate.Stats> getWriteContentionStats() {
+        return commodityService.getWriteContentionStats();
+    }
     /**
      * 增加商品浏览量
      */
     @PostMapping("/order/add")
+    @Idempotent
     @Operation(summary = "创建商品订单")
     public void addOrder(@RequestBody CommodityOrderDTO commodityOrderDTO) {
         commodityService.addOrder(commodityOrderDTO);
     }
+    /**
+     * 开启商品秒杀
+     */
+    @PostMapping("/flash-sale/{id}/start")
+    @Operation(summary = "开启商品秒杀")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public FlashSaleVO startFlashSale(@PathVariable Long id, @RequestBody(required = false) FlashSaleDTO flashSaleDTO) {
+        return commodityService.startFlashSale(id, flashSaleDTO);
+    }
+    /**
+     * 关闭商品秒杀
+     */
+    @PostMapping("/flash-sale/{id}/stop")
+    @Operation(summary = "关闭商品秒杀")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public void stopFlashSale(@PathVariable Long id) {
+        commodityService.stopFlashSale(id);
+    }
+    /**
+     * 获取商品秒杀状态
+     */
+    @GetMapping("/flash-sale/{id}")
+    @Operation(summary = "获取商品秒杀状态")
+    public FlashSaleVO getFlashSale(@PathVariable Long id) {
+        return commodityService.getFlashSale(id);
+    }
+    /**
+     * 秒杀下单（立即返回排队凭证）
+     */
+    @PostMapping("/flash-sale/{id}/purchase")
+    @Operation(summary = "秒杀下单")
+    public FlashSaleTicketVO purchaseFlashSale(@PathVariable Long id, @RequestBody CommodityOrderDTO commodityOrderDTO) {
+        return commodityService.purchaseFlashSale(id, commodityOrderDTO);
+    }
+    /**
+     * 查询秒杀排队结果
+     */
+    @GetMapping("/flash-sale/ticket/{ticketId}")
+    @Operation(summary = "查询秒杀排队结果")
+    public FlashSaleTicketVO getFlashSaleTicket(@PathVariable String ticketId) {
+        return commodityService.getFlashSaleTicket(ticketId);
+    }
     /**
      * 获取商品订单列表
      */
@@ -100,6 +292,15 @@ public class CommodityController {
     public Page<CommodityOrder> listOrder(CommodityOrderDTO queryDTO) {
         return commodityService.listOrder(queryDTO);
     }
+    /**
+     * 导出商品订单（流式）
+     */
+    @GetMapping("/order/export")
+    @Operation(summary = "导出商品订单")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public void exportOrder(CommodityOrderDTO queryDTO, HttpServletResponse response) {
+        commodityService.exportOrder(queryDTO, response);
+    }
     /**
      * 获取商品订单详情
      */
@@ -128,6 +329,7 @@ public class CommodityController {
      * 支付商品订单
      */
     @PostMapping("/order/pay")
+    @Idempotent
     @Operation(summary = "支付商品订单")
     public void payOrder(@RequestBody CommodityOrder commodityOrder) {
         commodityService.payOrder(commodityOrder);
@@ -179,7 +381,10 @@ public class CommodityController {
     }
     @GetMapping("/type/list")
     @Operation(summary = "获取商品类型列表")
-    public Page<CommodityType> listType(CommodityTypeDTO queryDTO) {
+    public Page<CommodityType> listType(CommodityTypeDTO queryDTO, WebRequest request) {
+        if (request.checkNotModified(commodityService.getTypeListETag())) {
+            return null;
+        }
         return commodityService.listType(queryDTO);
     }
     @GetMapping("/type/{id}")
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.Notice;
@@ -36,7 +37,11 @@ public class NoticeController {
      * 获取公告列表
      */
     @GetMapping("/list")
-    public Page<Notice> listNotice(NoticeDTO noticeDTO) {
+    public Page<Notice> listNotice(NoticeDTO noticeDTO, WebRequest request) {
+        // 先取 ETag 再查询，命中时直接返回 304
+        if (request.checkNotModified(noticeService.getNoticeListETag())) {
+            return null;
+        }
         return noticeService.listNotice(noticeDTO);
     }
     /**
@@ -15,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * 用户管理接口
@@ -91,6 +92,19 @@ public class UserController {
         return userService.listUsers(userQueryDTO);
     }
 
+    /**
+     * 导出用户列表（管理员，流式）
+     *
+     * @param userQueryDTO 查询参数
+     * @param response     HTTP 响应对象
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出用户列表")
+    @RequireRole(UserConstant.ADMIN_ROLE)
+    public void exportUsers(UserQueryDTO userQueryDTO, HttpServletResponse response) {
+        userService.exportUsers(userQueryDTO, response);
+    }
+
     /**
      * 获取用户公开信息展示页面
      * 展示用户的非敏感信息
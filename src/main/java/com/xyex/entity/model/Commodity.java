@@ -1,8 +1,10 @@
 package com.xyex.entity.model;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
 import com.xyex.infrastructure.model.BasicField;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -62,6 +64,13 @@ public class Commodity extends BasicField implements Serializable {
     @Schema(description = "商品分类ID")
     private Long commodityTypeId;
 
+    /**
+     * 商品分类名称（来自分类字典，不落库）
+     */
+    @TableField(exist = false)
+    @Schema(description = "商品分类名称")
+    private String commodityTypeName;
+
     /**
      * 管理员 ID （某人创建该商品）
      */
@@ -115,4 +124,11 @@ public class Commodity extends BasicField implements Serializable {
      */
     @Schema(description = "是否删除")
     private Integer isDelete;
+
+    /**
+     * 版本号（乐观锁）
+     */
+    @Version
+    @Schema(description = "版本号，修改时传入读取到的值，与当前版本不一致时拒绝修改")
+    private Integer version;
 }
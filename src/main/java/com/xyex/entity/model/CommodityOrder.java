@@ -57,6 +57,12 @@ public class CommodityOrder extends BasicField implements Serializable {
     @Schema(description = "购买数量")
     private Integer buyNumber;
 
+    /**
+     * 下单时预占的库存数量，超时取消时回补（0-未预占）
+     */
+    @Schema(description = "预占库存数量：0-未预占")
+    private Integer reservedNumber;
+
     /**
      * 订单总支付金额
      */
@@ -64,9 +70,9 @@ public class CommodityOrder extends BasicField implements Serializable {
     private BigDecimal paymentAmount;
 
     /**
-     * 0-未支付 1-已支付
+     * 0-未支付 1-已支付 2-已取消
      */
-    @Schema(description = "支付状态：0-未支付 1-已支付")
+    @Schema(description = "支付状态：0-未支付 1-已支付 2-已取消")
     private Integer payStatus;
 
     /**
@@ -0,0 +1,43 @@
+package com.xyex.entity.req;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 商品批量更新参数
+ * <p>
+ * 上下架状态、价格、分类至少提供一项，未提供的字段保持不变
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "CommodityBulkDTO", description = "商品批量更新参数")
+public class CommodityBulkDTO {
+
+    /**
+     * 商品ID列表
+     */
+    @Schema(description = "商品ID列表")
+    private List<Long> ids;
+
+    /**
+     * 上下架状态
+     */
+    @Schema(description = "上下架状态")
+    private Integer isListed;
+
+    /**
+     * 价格
+     */
+    @Schema(description = "价格")
+    private BigDecimal price;
+
+    /**
+     * 分类ID
+     */
+    @Schema(description = "分类ID")
+    private Long commodityTypeId;
+}
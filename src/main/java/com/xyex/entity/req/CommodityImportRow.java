@@ -0,0 +1,39 @@
+package com.xyex.entity.req;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品导入表格行
+ *
+ * @author xujun
+ */
+@Data
+public class CommodityImportRow {
+
+    @ExcelProperty("商品名称")
+    private String commodityName;
+
+    @ExcelProperty("商品简介")
+    private String commodityDescription;
+
+    @ExcelProperty("商品封面图")
+    private String commodityAvatar;
+
+    @ExcelProperty("新旧程度")
+    private String degree;
+
+    @ExcelProperty("分类ID")
+    private Long commodityTypeId;
+
+    @ExcelProperty("价格")
+    private BigDecimal price;
+
+    @ExcelProperty("库存")
+    private Integer commodityInventory;
+
+    @ExcelProperty("是否上架")
+    private Integer isListed;
+}
@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import com.alibaba.excel.util.StringUtils;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.ObjectUtils;
+import com.xyex.infrastructure.model.CountMode;
 import com.xyex.infrastructure.model.PageParam;
 
 import lombok.Data;
@@ -40,7 +41,7 @@ public class CommodityOrderDTO extends PageParam {
     private BigDecimal paymentAmount;
 
     /**
-     * 0-未支付 1-已支付
+     * 0-未支付 1-已支付 2-已取消
      */
     private Integer payStatus;
 
@@ -60,4 +61,11 @@ public class CommodityOrderDTO extends PageParam {
         return queryWrapper;
     }
 
+    /**
+     * 订单列表总数缓存一小段时间，翻页时不重复 COUNT
+     */
+    @Override
+    protected CountMode countMode() {
+        return CountMode.CACHED;
+    }
 }
@@ -3,11 +3,18 @@ package com.xyex.entity.req;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.xyex.entity.model.Commodity;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.infrastructure.model.CountMode;
 import com.xyex.infrastructure.model.PageParam;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
 /**
  * 商品查询DTO
  * 支持关键词查询（商品名称、简介）、分类查询、价格范围查询
@@ -19,6 +26,32 @@ import lombok.EqualsAndHashCode;
 @Schema(name = "CommodityQueryDTO", description = "商品查询DTO")
 public class CommodityQueryDTO extends PageParam {
 
+    /**
+     * 列表简介预览长度
+     */
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 100;
+
+    /**
+     * 列表可选字段 -> 查询列（列名与属性名一致）
+     */
+    private static final Map<String, String> CARD_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CARD_COLUMNS.put("id", "id");
+        CARD_COLUMNS.put("commodityName", "commodityName");
+        CARD_COLUMNS.put("commodityDescription",
+                "LEFT(commodityDescription, " + DESCRIPTION_PREVIEW_LENGTH + ") AS commodityDescription");
+        CARD_COLUMNS.put("commodityAvatar", "commodityAvatar");
+        CARD_COLUMNS.put("degree", "degree");
+        CARD_COLUMNS.put("commodityTypeId", "commodityTypeId");
+        CARD_COLUMNS.put("isListed", "isListed");
+        CARD_COLUMNS.put("commodityInventory", "commodityInventory");
+        CARD_COLUMNS.put("price", "price");
+        CARD_COLUMNS.put("viewNum", "viewNum");
+        CARD_COLUMNS.put("favourNum", "favourNum");
+        CARD_COLUMNS.put("createTime", "createTime");
+    }
+
     /**
      * 商品ID
      */
@@ -49,6 +82,44 @@ public class CommodityQueryDTO extends PageParam {
     @Schema(description = "是否上架：0-未上架 1-已上架")
     private Integer isListed;
 
+    /**
+     * 返回字段（逗号分隔），为空时返回全部卡片字段
+     */
+    @Schema(description = "返回字段，逗号分隔，如 id,commodityName,price；为空返回全部卡片字段")
+    private String fields;
+
+    /**
+     * 列表查询的列清单
+     * id 与 createTime 始终查询（游标分页依赖），commodityTypeName 随 commodityTypeId 返回
+     *
+     * @return SELECT 列清单（仅由白名单拼接）
+     */
+    public String cardColumns() {
+        if (fields == null || fields.isBlank()) {
+            return String.join(", ", CARD_COLUMNS.values());
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        selected.put("id", CARD_COLUMNS.get("id"));
+        selected.put("createTime", CARD_COLUMNS.get("createTime"));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if ("commodityTypeName".equals(name)) {
+                name = "commodityTypeId";
+            }
+            String column = CARD_COLUMNS.get(name);
+            if (column == null) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的字段: " + name);
+            }
+            selected.put(name, column);
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        selected.values().forEach(joiner::add);
+        return joiner.toString();
+    }
+
     @Override
     public Wrapper<Commodity> createQuery() {
         LambdaQueryWrapper<Commodity> wrapper = new LambdaQueryWrapper<>();
@@ -93,4 +164,12 @@ public class CommodityQueryDTO extends PageParam {
 
         return wrapper;
     }
+
+    /**
+     * 列表页同一筛选条件的请求集中，总数缓存一小段时间
+     */
+    @Override
+    protected CountMode countMode() {
+        return CountMode.CACHED;
+    }
 }
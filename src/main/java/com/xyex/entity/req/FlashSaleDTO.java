@@ -0,0 +1,26 @@
+package com.xyex.entity.req;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 秒杀开启参数DTO
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "FlashSaleDTO", description = "秒杀开启参数")
+public class FlashSaleDTO {
+
+    /**
+     * 每秒放行的下单请求数
+     */
+    @Schema(description = "每秒放行的下单请求数，默认 200")
+    private Double permitsPerSecond;
+
+    /**
+     * 突发容量
+     */
+    @Schema(description = "突发容量，默认与每秒放行数相同")
+    private Integer burst;
+}
@@ -3,6 +3,7 @@ package com.xyex.entity.req;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.xyex.entity.model.UserInfo;
+import com.xyex.infrastructure.model.CountMode;
 import com.xyex.infrastructure.model.PageParam;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -52,4 +53,12 @@ public class UserQueryDTO extends PageParam {
         
         return wrapper;
     }
+
+    /**
+     * 用户表较大，后台列表使用估算总数
+     */
+    @Override
+    protected CountMode countMode() {
+        return CountMode.ESTIMATED;
+    }
 }
@@ -0,0 +1,57 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量操作结果VO
+ * 按请求顺序返回每个ID的处理结果
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "BulkResultVO", description = "批量操作结果")
+public class BulkResultVO {
+
+    /**
+     * 成功数量
+     */
+    @Schema(description = "成功数量")
+    private int successCount;
+
+    /**
+     * 失败数量
+     */
+    @Schema(description = "失败数量")
+    private int failureCount;
+
+    /**
+     * 逐个ID的处理结果
+     */
+    @Schema(description = "逐个ID的处理结果")
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * 单个ID的处理结果
+     *
+     * @param id      ID
+     * @param success 是否成功
+     * @param message 失败原因
+     */
+    @Schema(name = "BulkResultItem", description = "单个ID的处理结果")
+    public record Item(Long id, boolean success, String message) {
+    }
+
+    public void succeed(Long id) {
+        items.add(new Item(id, true, null));
+        successCount++;
+    }
+
+    public void fail(Long id, String message) {
+        items.add(new Item(id, false, message));
+        failureCount++;
+    }
+}
@@ -0,0 +1,60 @@
+package com.xyex.entity.res;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品列表卡片VO
+ * 只包含列表卡片展示所需的列，简介为截断后的预览；
+ * 按 fields 稀疏查询时未选择的字段为 null，不参与序列化
+ *
+ * @author xujun
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "CommodityCardVO", description = "商品列表卡片")
+public class CommodityCardVO {
+
+    @Schema(description = "商品ID")
+    private Long id;
+
+    @Schema(description = "商品名称")
+    private String commodityName;
+
+    @Schema(description = "商品简介预览")
+    private String commodityDescription;
+
+    @Schema(description = "商品封面图")
+    private String commodityAvatar;
+
+    @Schema(description = "商品新旧程度")
+    private String degree;
+
+    @Schema(description = "商品分类ID")
+    private Long commodityTypeId;
+
+    @Schema(description = "商品分类名称")
+    private String commodityTypeName;
+
+    @Schema(description = "是否上架：0-未上架 1-已上架")
+    private Integer isListed;
+
+    @Schema(description = "商品库存数量")
+    private Integer commodityInventory;
+
+    @Schema(description = "商品价格")
+    private BigDecimal price;
+
+    @Schema(description = "商品浏览量")
+    private Integer viewNum;
+
+    @Schema(description = "商品收藏量")
+    private Integer favourNum;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+}
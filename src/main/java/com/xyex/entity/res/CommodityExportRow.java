@@ -0,0 +1,68 @@
+package com.xyex.entity.res;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.xyex.entity.model.Commodity;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品导出表格行
+ *
+ * @author xujun
+ */
+@Data
+public class CommodityExportRow {
+
+    @ExcelProperty("商品ID")
+    private Long id;
+
+    @ExcelProperty("商品名称")
+    private String commodityName;
+
+    @ExcelProperty("商品简介")
+    private String commodityDescription;
+
+    @ExcelProperty("新旧程度")
+    private String degree;
+
+    @ExcelProperty("分类ID")
+    private Long commodityTypeId;
+
+    @ExcelProperty("价格")
+    private BigDecimal price;
+
+    @ExcelProperty("库存")
+    private Integer commodityInventory;
+
+    @ExcelProperty("是否上架")
+    private Integer isListed;
+
+    @ExcelProperty("浏览量")
+    private Integer viewNum;
+
+    @ExcelProperty("收藏量")
+    private Integer favourNum;
+
+    @ExcelProperty("创建时间")
+    @DateTimeFormat("yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    public static CommodityExportRow of(Commodity commodity) {
+        CommodityExportRow row = new CommodityExportRow();
+        row.setId(commodity.getId());
+        row.setCommodityName(commodity.getCommodityName());
+        row.setCommodityDescription(commodity.getCommodityDescription());
+        row.setDegree(commodity.getDegree());
+        row.setCommodityTypeId(commodity.getCommodityTypeId());
+        row.setPrice(commodity.getPrice());
+        row.setCommodityInventory(commodity.getCommodityInventory());
+        row.setIsListed(commodity.getIsListed());
+        row.setViewNum(commodity.getViewNum());
+        row.setFavourNum(commodity.getFavourNum());
+        row.setCreateTime(commodity.getCreateTime());
+        return row;
+    }
+}
@@ -0,0 +1,40 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 商品分面统计VO
+ * <p>
+ * 每个维度的计数应用除该维度以外的全部筛选条件，便于前端展示"切换到该选项后的结果数"
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "CommodityFacetVO", description = "商品分面统计")
+public class CommodityFacetVO {
+
+    @Schema(description = "满足全部筛选条件的商品数")
+    private long total;
+
+    @Schema(description = "按分类统计，value 为分类ID")
+    private List<FacetCount> types;
+
+    @Schema(description = "按价格区间统计，value 形如 50-100，最后一档形如 1000+")
+    private List<FacetCount> priceRanges;
+
+    @Schema(description = "按上架状态统计，value 为 0/1")
+    private List<FacetCount> listed;
+
+    /**
+     * 分面取值与计数
+     *
+     * @param value 取值
+     * @param count 商品数
+     */
+    @Schema(name = "FacetCount", description = "分面取值与计数")
+    public record FacetCount(String value, long count) {
+    }
+}
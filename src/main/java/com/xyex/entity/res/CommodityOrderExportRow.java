@@ -0,0 +1,56 @@
+package com.xyex.entity.res;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.xyex.entity.model.CommodityOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品订单导出表格行
+ *
+ * @author xujun
+ */
+@Data
+public class CommodityOrderExportRow {
+
+    @ExcelProperty("订单ID")
+    private Long id;
+
+    @ExcelProperty("用户ID")
+    private Long userId;
+
+    @ExcelProperty("商品ID")
+    private Long commodityId;
+
+    @ExcelProperty("购买数量")
+    private Integer buyNumber;
+
+    @ExcelProperty("支付金额")
+    private BigDecimal paymentAmount;
+
+    @ExcelProperty("支付状态")
+    private Integer payStatus;
+
+    @ExcelProperty("备注")
+    private String remark;
+
+    @ExcelProperty("创建时间")
+    @DateTimeFormat("yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    public static CommodityOrderExportRow of(CommodityOrder order) {
+        CommodityOrderExportRow row = new CommodityOrderExportRow();
+        row.setId(order.getId());
+        row.setUserId(order.getUserId());
+        row.setCommodityId(order.getCommodityId());
+        row.setBuyNumber(order.getBuyNumber());
+        row.setPaymentAmount(order.getPaymentAmount());
+        row.setPayStatus(order.getPayStatus());
+        row.setRemark(order.getRemark());
+        row.setCreateTime(order.getCreateTime());
+        return row;
+    }
+}
@@ -0,0 +1,27 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 商品名称补全VO
+ *
+ * @author xujun
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CommoditySuggestVO", description = "商品名称补全建议")
+public class CommoditySuggestVO {
+
+    @Schema(description = "建议文本（商品名称）")
+    private String text;
+
+    @Schema(description = "同名商品中热度最高的商品ID")
+    private Long commodityId;
+
+    @Schema(description = "热度（同名商品浏览量与收藏量加权之和）")
+    private long weight;
+}
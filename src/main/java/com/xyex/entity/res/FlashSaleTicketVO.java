@@ -0,0 +1,37 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 秒杀排队凭证VO
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "FlashSaleTicketVO", description = "秒杀排队凭证")
+public class FlashSaleTicketVO {
+
+    @Schema(description = "凭证ID（未排队时为空）")
+    private String ticketId;
+
+    @Schema(description = "商品ID")
+    private Long commodityId;
+
+    @Schema(description = "状态：QUEUED/SUCCEEDED/SOLD_OUT/FAILED/REJECTED")
+    private String status;
+
+    @Schema(description = "订单ID（成功后返回）")
+    private Long orderId;
+
+    @Schema(description = "说明")
+    private String message;
+
+    @Schema(description = "排队时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "完成时间")
+    private LocalDateTime finishTime;
+}
@@ -0,0 +1,38 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 秒杀状态VO
+ *
+ * @author xujun
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "FlashSaleVO", description = "秒杀状态")
+public class FlashSaleVO {
+
+    @Schema(description = "商品ID")
+    private Long commodityId;
+
+    @Schema(description = "每秒放行请求数")
+    private double permitsPerSecond;
+
+    @Schema(description = "突发容量")
+    private int burst;
+
+    @Schema(description = "剩余可排队名额")
+    private long remaining;
+
+    @Schema(description = "已发放凭证数")
+    private long tickets;
+
+    @Schema(description = "开始时间")
+    private LocalDateTime startTime;
+}
@@ -0,0 +1,60 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 导入任务状态VO
+ *
+ * @author xujun
+ */
+@Data
+@Schema(name = "ImportJobVO", description = "导入任务状态")
+public class ImportJobVO {
+
+    @Schema(description = "任务ID")
+    private String jobId;
+
+    @Schema(description = "文件名")
+    private String fileName;
+
+    @Schema(description = "任务状态：PENDING/RUNNING/SUCCEEDED/FAILED")
+    private String status;
+
+    @Schema(description = "预估总行数")
+    private Integer totalRows;
+
+    @Schema(description = "已处理行数")
+    private int processedRows;
+
+    @Schema(description = "成功行数")
+    private int successRows;
+
+    @Schema(description = "失败行数")
+    private int failedRows;
+
+    @Schema(description = "行级错误（最多保留前若干条）")
+    private List<RowError> errors;
+
+    @Schema(description = "任务级错误信息")
+    private String message;
+
+    @Schema(description = "开始时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    private LocalDateTime endTime;
+
+    /**
+     * 行级错误
+     *
+     * @param row     表格行号（从 1 开始，含表头）
+     * @param message 错误原因
+     */
+    @Schema(name = "ImportRowError", description = "行级错误")
+    public record RowError(int row, String message) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 相似商品VO
+ *
+ * @author xujun
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "SimilarItemVO", description = "相似商品")
+public class SimilarItemVO {
+
+    @Schema(description = "商品ID")
+    private Long commodityId;
+
+    @Schema(description = "相似度（共现余弦相似度，0-1）")
+    private double similarity;
+}
@@ -0,0 +1,33 @@
+package com.xyex.entity.res;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 热门商品VO
+ *
+ * @author xujun
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "TrendingItemVO", description = "热门商品")
+public class TrendingItemVO {
+
+    @Schema(description = "商品ID")
+    private Long commodityId;
+
+    @Schema(description = "热度分（浏览、收藏、下单加权求和）")
+    private long score;
+
+    @Schema(description = "窗口内浏览次数")
+    private long views;
+
+    @Schema(description = "窗口内净收藏次数")
+    private long favourites;
+
+    @Schema(description = "窗口内下单件数")
+    private long orders;
+}
@@ -0,0 +1,59 @@
+package com.xyex.entity.res;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.xyex.entity.model.UserInfo;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户导出表格行（不含密码等敏感字段）
+ *
+ * @author xujun
+ */
+@Data
+public class UserExportRow {
+
+    @ExcelProperty("用户ID")
+    private Long id;
+
+    @ExcelProperty("账号")
+    private String userAccount;
+
+    @ExcelProperty("昵称")
+    private String userName;
+
+    @ExcelProperty("角色")
+    private String userRole;
+
+    @ExcelProperty("手机号")
+    private String userPhone;
+
+    @ExcelProperty("邮箱")
+    private String userEmail;
+
+    @ExcelProperty("学校")
+    private String userSchool;
+
+    @ExcelProperty("专业")
+    private String userMajor;
+
+    @ExcelProperty("注册时间")
+    @DateTimeFormat("yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    public static UserExportRow of(UserInfo user) {
+        UserExportRow row = new UserExportRow();
+        row.setId(user.getId());
+        row.setUserAccount(user.getUserAccount());
+        row.setUserName(user.getUserName());
+        row.setUserRole(user.getUserRole());
+        row.setUserPhone(user.getUserPhone());
+        row.setUserEmail(user.getUserEmail());
+        row.setUserSchool(user.getUserSchool());
+        row.setUserMajor(user.getUserMajor());
+        row.setCreateTime(user.getCreateTime());
+        return row;
+    }
+}
@@ -0,0 +1,149 @@
+package com.xyex.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 幂等结果存储
+ * <p>
+ * 本地为有界、写入后过期的 Caffeine 缓存，保存每个幂等键的执行结果（执行中时为未完成的 future），
+ * 同一 key 的并发请求只有第一个执行，其余等待其结果。二级为可选的 {@link SharedCacheTier}，
+ * 只保存已完成的结果，用于多节点之间的重放；跨节点的并发请求不做互斥。
+ * <p>
+ * 未以 {@link Outcome} 返回的异常（系统异常）不保存，等待中的请求收到同一异常，之后的重试会重新执行。
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Cache<String, CompletableFuture<Outcome>> local;
+    private final SharedCacheTier shared;
+    private final Duration ttl;
+    private final long waitMillis;
+
+    /**
+     * 执行结果
+     *
+     * @param fingerprint 请求参数摘要，同一幂等键的参数不同时拒绝
+     * @param value       返回值 JSON，失败时为 null
+     * @param code        业务异常码，成功时为 null
+     * @param message     业务异常信息
+     */
+    public record Outcome(String fingerprint, String value, Integer code, String message) {
+
+        public static Outcome success(String fingerprint, String value) {
+            return new Outcome(fingerprint, value, null, null);
+        }
+
+        public static Outcome failure(String fingerprint, BusinessException e) {
+            return new Outcome(fingerprint, null, e.getCode(), e.getMessage());
+        }
+
+        public boolean succeeded() {
+            return code == null;
+        }
+    }
+
+    /**
+     * @param outcome  执行结果
+     * @param replayed 是否为重放（结果来自之前的执行）
+     */
+    public record Hit(Outcome outcome, boolean replayed) {
+    }
+
+    /**
+     * 实际执行，由调用方把业务异常转换为 {@link Outcome}
+     */
+    @FunctionalInterface
+    public interface Action {
+        Outcome run() throws Throwable;
+    }
+
+    public IdempotencyStore(long maximumSize, Duration ttl, SharedCacheTier shared, Duration wait) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.shared = shared;
+        this.ttl = ttl;
+        this.waitMillis = wait.toMillis();
+    }
+
+    /**
+     * 按幂等键执行，已有结果时直接返回
+     *
+     * @param key    幂等键（调用方负责加上用户与接口前缀）
+     * @param action 实际执行
+     * @return 执行结果
+     */
+    public Hit execute(String key, Action action) throws Throwable {
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> existing = local.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return new Hit(await(existing), true);
+        }
+        try {
+            Outcome stored = readShared(key);
+            if (stored != null) {
+                mine.complete(stored);
+                return new Hit(stored, true);
+            }
+            Outcome outcome = action.run();
+            writeShared(key, outcome);
+            mine.complete(outcome);
+            return new Hit(outcome, false);
+        } catch (Throwable e) {
+            local.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Outcome await(CompletableFuture<Outcome> future) throws Throwable {
+        try {
+            return future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.CONFLICT, "相同请求正在处理中，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待请求结果被中断");
+        }
+    }
+
+    private Outcome readShared(String key) {
+        String json = shared.get(key);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, Outcome.class);
+        } catch (JsonProcessingException e) {
+            log.warn("幂等结果反序列化失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private void writeShared(String key, Outcome outcome) {
+        try {
+            shared.put(key, MAPPER.writeValueAsString(outcome), ttl);
+        } catch (JsonProcessingException e) {
+            log.warn("幂等结果序列化失败: {}", key, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.xyex.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * 进程内共享缓存替身
+ * 语义与 Redis 的 GET / SET EX / DEL / INCRBY 一致，用于测试和未部署 Redis 的环境
+ * <p>
+ * 底层为有界 Caffeine 缓存，按每条写入的 TTL 过期，不再被读取的 key 也会被清理，超出容量时按 W-TinyLFU 淘汰。
+ */
+public class InMemorySharedCacheTier implements SharedCacheTier {
+
+    private final Cache<String, Entry> store;
+
+    private record Entry(String value, long ttlNanos) {
+    }
+
+    public InMemorySharedCacheTier(long maximumSize) {
+        this.store = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String get(String key) {
+        Entry entry = store.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        store.put(key, new Entry(value, ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        store.invalidate(key);
+    }
+
+    @Override
+    public Long increment(String key, long delta) {
+        Entry entry = store.asMap().compute(key, (k, current) -> new Entry(
+                Long.toString((current == null ? 0 : Long.parseLong(current.value())) + delta), Long.MAX_VALUE));
+        return Long.parseLong(entry.value());
+    }
+}
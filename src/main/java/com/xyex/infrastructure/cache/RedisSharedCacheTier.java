@@ -0,0 +1,56 @@
+package com.xyex.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 基于 Redis 的共享缓存层
+ * Redis 不可用时降级为缓存未命中，不影响主流程
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisSharedCacheTier implements SharedCacheTier {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public String get(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取共享缓存失败: {}", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (Exception e) {
+            log.warn("写入共享缓存失败: {}", key, e);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.warn("删除共享缓存失败: {}", key, e);
+        }
+    }
+
+    @Override
+    public Long increment(String key, long delta) {
+        try {
+            return redisTemplate.opsForValue().increment(key, delta);
+        } catch (Exception e) {
+            log.warn("共享计数递增失败: {}", key, e);
+            return null;
+        }
+    }
+}
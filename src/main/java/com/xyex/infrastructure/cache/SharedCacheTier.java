@@ -0,0 +1,66 @@
+package com.xyex.infrastructure.cache;
+
+import java.time.Duration;
+
+/**
+ * 共享缓存层（二级缓存）
+ * 生产环境使用 Redis 协议实现，测试或单机环境可使用进程内替身
+ */
+public interface SharedCacheTier {
+
+    /**
+     * 不启用共享缓存时使用的空实现
+     */
+    SharedCacheTier NONE = new SharedCacheTier() {
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public void put(String key, String value, Duration ttl) {
+        }
+
+        @Override
+        public void evict(String key) {
+        }
+
+        @Override
+        public Long increment(String key, long delta) {
+            return null;
+        }
+    };
+
+    /**
+     * 读取缓存
+     *
+     * @param key 缓存键
+     * @return 缓存值，不存在时返回 null
+     */
+    String get(String key);
+
+    /**
+     * 写入缓存
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @param ttl   过期时间
+     */
+    void put(String key, String value, Duration ttl);
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存键
+     */
+    void evict(String key);
+
+    /**
+     * 原子增加计数（不存在时从 0 开始，不过期）
+     *
+     * @param key   计数键
+     * @param delta 增量
+     * @return 增加后的值，失败或未启用时返回 null
+     */
+    Long increment(String key, long delta);
+}
@@ -0,0 +1,159 @@
+package com.xyex.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 两级读穿缓存
+ * <p>
+ * 一级为 Caffeine 本地缓存（W-TinyLFU 淘汰 + 写入后过期），二级为可选的 {@link SharedCacheTier}。
+ * 读取顺序：本地 -> 共享层 -> loader，加载结果逐级回填；同一 key 的并发加载只执行一次。
+ * 返回的对象被多个请求共享，调用方不得修改。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+@Slf4j
+public class TwoLevelCache<K, V> {
+
+    /**
+     * 共享层序列化专用（时间字段使用 ISO 格式，与 Web 层的展示格式解耦）
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final String name;
+    private final Class<V> valueType;
+    private final Cache<K, V> local;
+    private final SharedCacheTier shared;
+    private final Duration sharedTtl;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TwoLevelCache(String name, Class<V> valueType, long maximumSize, Duration localTtl,
+                         SharedCacheTier shared, Duration sharedTtl) {
+        this.name = name;
+        this.valueType = valueType;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+    }
+
+    /**
+     * 读取缓存，未命中时通过 loader 加载
+     *
+     * @param key    键
+     * @param loader 加载函数，返回 null 时不缓存
+     * @return 值
+     */
+    public V get(K key, Function<K, V> loader) {
+        return local.get(key, k -> {
+            V value = readShared(k);
+            if (value != null) {
+                return value;
+            }
+            value = loader.apply(k);
+            if (value != null) {
+                writeShared(k, value);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * 只读本地缓存，不触发加载
+     *
+     * @param key 键
+     * @return 值，未缓存时返回 null
+     */
+    public V getIfPresent(K key) {
+        return local.getIfPresent(key);
+    }
+
+    /**
+     * 使两级缓存失效
+     *
+     * @param key 键
+     */
+    public void evict(K key) {
+        local.invalidate(key);
+        shared.evict(sharedKey(key));
+    }
+
+    /**
+     * 缓存统计
+     */
+    public Stats stats() {
+        CacheStats localStats = local.stats();
+        long sharedHitCount = sharedHits.sum();
+        long requests = localStats.requestCount();
+        double hitRate = requests == 0 ? 1.0 : (double) (localStats.hitCount() + sharedHitCount) / requests;
+        return new Stats(name, local.estimatedSize(), localStats.hitCount(), localStats.missCount(),
+                localStats.hitRate(), sharedHitCount, sharedMisses.sum(), hitRate,
+                localStats.evictionCount(), localStats.averageLoadPenalty() / 1_000_000.0);
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param name               缓存名称
+     * @param localSize          本地缓存条数（估算）
+     * @param localHitCount      本地命中次数
+     * @param localMissCount     本地未命中次数
+     * @param localHitRate       本地命中率
+     * @param sharedHitCount     共享层命中次数
+     * @param sharedMissCount    共享层未命中次数
+     * @param hitRate            总命中率（本地或共享层命中）
+     * @param evictionCount      本地淘汰次数（容量或过期）
+     * @param averageLoadMillis  平均加载耗时（毫秒）
+     */
+    public record Stats(String name, long localSize, long localHitCount, long localMissCount, double localHitRate,
+                        long sharedHitCount, long sharedMissCount, double hitRate, long evictionCount,
+                        double averageLoadMillis) {
+    }
+
+    private V readShared(K key) {
+        String json = shared.get(sharedKey(key));
+        if (json == null) {
+            sharedMisses.increment();
+            return null;
+        }
+        try {
+            V value = MAPPER.readValue(json, valueType);
+            sharedHits.increment();
+            return value;
+        } catch (JsonProcessingException e) {
+            log.warn("共享缓存反序列化失败: {}", sharedKey(key), e);
+            sharedMisses.increment();
+            return null;
+        }
+    }
+
+    private void writeShared(K key, V value) {
+        try {
+            shared.put(sharedKey(key), MAPPER.writeValueAsString(value), sharedTtl);
+        } catch (JsonProcessingException e) {
+            log.warn("共享缓存序列化失败: {}", sharedKey(key), e);
+        }
+    }
+
+    private String sharedKey(K key) {
+        return "cache:" + name + ":" + key;
+    }
+}
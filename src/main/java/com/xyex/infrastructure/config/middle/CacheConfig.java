@@ -0,0 +1,51 @@
+package com.xyex.infrastructure.config.middle;
+
+import com.xyex.infrastructure.cache.IdempotencyStore;
+import com.xyex.infrastructure.cache.InMemorySharedCacheTier;
+import com.xyex.infrastructure.cache.RedisSharedCacheTier;
+import com.xyex.infrastructure.cache.SharedCacheTier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 缓存配置
+ */
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 共享缓存层
+     * 由 cache.shared-type 选择：none-不启用，memory-进程内替身，redis-Redis
+     */
+    @Bean
+    public SharedCacheTier sharedCacheTier(@Value("${cache.shared-type:none}") String type,
+                                           @Value("${cache.shared-maximum-size:100000}") long memoryMaximumSize,
+                                           ObjectProvider<StringRedisTemplate> redisTemplate) {
+        log.info("共享缓存层: {}", type);
+        return switch (type) {
+            case "redis" -> new RedisSharedCacheTier(redisTemplate.getObject());
+            case "memory" -> new InMemorySharedCacheTier(memoryMaximumSize);
+            default -> SharedCacheTier.NONE;
+        };
+    }
+
+    /**
+     * 幂等结果存储
+     * 本地有界缓存，启用共享缓存层时结果同时写入共享层
+     */
+    @Bean
+    public IdempotencyStore idempotencyStore(@Value("${cache.idempotency.max-size:100000}") long maximumSize,
+                                             @Value("${cache.idempotency.ttl:86400}") long ttlSeconds,
+                                             @Value("${cache.idempotency.wait-timeout:10}") long waitSeconds,
+                                             SharedCacheTier sharedCacheTier) {
+        return new IdempotencyStore(maximumSize, Duration.ofSeconds(ttlSeconds), sharedCacheTier,
+                Duration.ofSeconds(waitSeconds));
+    }
+}
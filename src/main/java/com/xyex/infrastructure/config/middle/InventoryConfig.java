@@ -0,0 +1,57 @@
+package com.xyex.infrastructure.config.middle;
+
+import com.xyex.service.inventory.FileInventoryJournal;
+import com.xyex.service.inventory.InMemoryInventoryStore;
+import com.xyex.service.inventory.InventoryJournal;
+import com.xyex.service.inventory.InventoryLedger;
+import com.xyex.service.inventory.InventoryStore;
+import com.xyex.service.inventory.RedisInventoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * 库存配置
+ */
+@Slf4j
+@Configuration
+public class InventoryConfig {
+
+    /**
+     * 库存存储
+     * 由 commodity.inventory.store-type 选择：none-直接扣减数据库，memory-进程内替身，redis-Redis，
+     * ledger-进程内账本（单机部署，配合扣减日志）
+     */
+    @Bean
+    public InventoryStore inventoryStore(@Value("${commodity.inventory.store-type:none}") String type,
+                                         ObjectProvider<StringRedisTemplate> redisTemplate) {
+        log.info("库存存储: {}", type);
+        return switch (type) {
+            case "redis" -> new RedisInventoryStore(redisTemplate.getObject());
+            case "memory" -> new InMemoryInventoryStore();
+            case "ledger" -> new InventoryLedger();
+            default -> InventoryStore.NONE;
+        };
+    }
+
+    /**
+     * 库存扣减日志，仅进程内账本启用
+     */
+    @Bean
+    public InventoryJournal inventoryJournal(@Value("${commodity.inventory.store-type:none}") String type,
+                                             @Value("${commodity.inventory.journal-path:data/inventory.journal}") String path,
+                                             @Value("${commodity.inventory.journal-fsync:true}") boolean fsync,
+                                             @Value("${commodity.inventory.journal-compact-size:8MB}") DataSize compactSize) {
+        if (!"ledger".equals(type)) {
+            return InventoryJournal.NONE;
+        }
+        log.info("库存扣减日志: {}, fsync: {}", path, fsync);
+        return new FileInventoryJournal(Path.of(path), fsync, compactSize.toBytes());
+    }
+}
@@ -4,13 +4,16 @@ import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
+import com.xyex.infrastructure.interceptor.CountStrategyPaginationInterceptor;
 import com.xyex.shared.utils.SessionUtil;
 import org.apache.ibatis.reflection.MetaObject;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Configuration
@@ -69,10 +72,12 @@ public class MybatisPlusConfig implements IdentifierGenerator, MetaObjectHandler
     }
 
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(@Value("${page.count-cache-ttl:30s}") Duration countCacheTtl) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        // 添加分页插件
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        // 乐观锁插件：带 @Version 字段的实体 updateById 时追加版本号条件并自增版本
+        interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
+        // 添加分页插件（支持按 PageParam 选择总数统计方式）
+        interceptor.addInnerInterceptor(new CountStrategyPaginationInterceptor(DbType.MYSQL, countCacheTtl));
         return interceptor;
     }
 
@@ -1,9 +1,11 @@
 package com.xyex.infrastructure.config.web;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
@@ -12,6 +14,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ThreadPoolConfig {
 
     /**
@@ -75,5 +78,45 @@ public class ThreadPoolConfig {
         return executor;
     }
 
+    /**
+     * 秒杀下单线程池
+     * 线程数即同时访问库存与订单表的并发上限，队列容量即最多排队的凭证数
+     */
+    @Bean("flashSaleExecutor")
+    public Executor flashSaleExecutor(@Value("${commodity.flash-sale.workers:4}") int workers,
+                                      @Value("${commodity.flash-sale.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("flash-sale-");
+        // 拒绝策略：抛出异常，由调用方归还名额并提示稍后重试
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        log.info("秒杀下单线程池配置完成 - 线程数: {}, 队列容量: {}", workers, queueCapacity);
+        return executor;
+    }
 
-}
\ No newline at end of file
+    /**
+     * 商品导入线程池
+     * 导入耗时较长，与通用异步任务隔离；队列满时拒绝，由调用方将任务标记为失败
+     */
+    @Bean("importExecutor")
+    public Executor importExecutor(@Value("${commodity.import.workers:2}") int workers,
+                                   @Value("${commodity.import.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("commodity-import-");
+        // 拒绝策略：抛出异常，不静默丢弃已登记的任务
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(120);
+        executor.initialize();
+        log.info("商品导入线程池配置完成 - 线程数: {}, 队列容量: {}", workers, queueCapacity);
+        return executor;
+    }
+}
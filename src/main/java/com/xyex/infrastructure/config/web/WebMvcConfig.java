@@ -1,17 +1,21 @@
 package com.xyex.infrastructure.config.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.xyex.infrastructure.filter.RequestMdcFilter;
 import com.xyex.infrastructure.interceptor.LoginUserInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 
 @Configuration
@@ -27,18 +31,34 @@ public class WebMvcConfig implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(new RequestMdcFilter()).addPathPatterns("/**");
         registry.addInterceptor(loginUserInterceptor)
-                .addPathPatterns("/user/**")
+                .addPathPatterns("/user/**", "/commodity/import", "/commodity/flash-sale/*/purchase")
                 .excludePathPatterns("/user/login", "/user/register", "/user/profile/**");
     }
 
+    /**
+     * 追加 Smile 二进制编码，请求头 Accept: application/x-jackson-smile 时使用
+     * 默认注册的 Smile 转换器不带本项目的时间格式，替换为与 JSON 相同的配置；
+     * 追加在 JSON 之后，Accept 为通配或未指定时仍返回 JSON
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(configure(new ObjectMapper(new SmileFactory()))));
+    }
+
     /**
      * 配置ObjectMapper，用于格式化LocalDateTime字段和将Long类型序列化为字符串
      * @return 配置后的ObjectMapper
      */
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
 
+    /**
+     * JSON 与 Smile 共用的序列化配置
+     */
+    private static ObjectMapper configure(ObjectMapper mapper) {
         // 配置LocalDateTime序列化
         JavaTimeModule javaTimeModule = new JavaTimeModule();
         javaTimeModule.addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
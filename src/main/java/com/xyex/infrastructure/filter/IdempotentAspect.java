@@ -0,0 +1,125 @@
+package com.xyex.infrastructure.filter;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xyex.annotation.Idempotent;
+import com.xyex.infrastructure.cache.IdempotencyStore;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.shared.utils.SessionUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Idempotent 注解的 AOP 处理
+ * 按 Idempotency-Key 请求头保存接口结果，重复请求直接重放
+ *
+ * @author xujun
+ */
+@Aspect
+@Component
+public class IdempotentAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final IdempotencyStore store;
+
+    public IdempotentAspect(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Around("@annotation(idempotent)")
+    public Object around(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return joinPoint.proceed();
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "幂等键长度不能超过" + MAX_KEY_LENGTH);
+        }
+
+        // 幂等键按用户和接口隔离
+        String key = "idempotency:" + SessionUtil.getUserAccount() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(joinPoint.getArgs());
+        Invocation invocation = new Invocation();
+        IdempotencyStore.Hit hit = store.execute(key, () -> invocation.run(joinPoint, fingerprint));
+
+        IdempotencyStore.Outcome outcome = hit.outcome();
+        if (!fingerprint.equals(outcome.fingerprint())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "幂等键已用于参数不同的请求");
+        }
+        if (!hit.replayed()) {
+            if (invocation.error != null) {
+                throw invocation.error;
+            }
+            return invocation.value;
+        }
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null) {
+            response.setHeader(REPLAYED_HEADER, "true");
+        }
+        if (!outcome.succeeded()) {
+            BusinessException e = new BusinessException(ErrorCode.ERROR);
+            e.setCode(outcome.code());
+            e.setMessage(outcome.message());
+            throw e;
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (method.getReturnType() == void.class || outcome.value() == null) {
+            return null;
+        }
+        return MAPPER.readValue(outcome.value(), MAPPER.constructType(method.getGenericReturnType()));
+    }
+
+    private static String fingerprint(Object[] args) throws Exception {
+        return DigestUtils.md5DigestAsHex(MAPPER.writeValueAsString(args).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 首次执行的原始返回值与异常，首次请求直接使用，不经过序列化
+     */
+    private static final class Invocation {
+
+        private Object value;
+        private BusinessException error;
+
+        IdempotencyStore.Outcome run(ProceedingJoinPoint joinPoint, String fingerprint) throws Throwable {
+            try {
+                value = joinPoint.proceed();
+                return IdempotencyStore.Outcome.success(fingerprint, MAPPER.writeValueAsString(value));
+            } catch (BusinessException e) {
+                if (e.getCode() != null && e.getCode() >= 500) {
+                    // 服务端暂时性错误不保存，允许客户端重试；接口须保证 5xx 时没有产生副作用
+                    // （例如下单排队超时会先撤回订单，已进入写入的则等待结果，结果未知时返回 409 并保存）
+                    throw e;
+                }
+                error = e;
+                return IdempotencyStore.Outcome.failure(fingerprint, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.xyex.infrastructure.interceptor;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyex.infrastructure.model.CountMode;
+import com.xyex.infrastructure.model.CountingPage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * 支持多种总数统计方式的分页拦截器
+ * <p>
+ * 普通 {@link com.baomidou.mybatisplus.extension.plugins.pagination.Page} 与 {@link CountMode#EXACT} 保持原行为；
+ * {@link CountingPage} 按其统计方式执行：缓存 COUNT 结果、使用 EXPLAIN 估算或跳过 COUNT。
+ */
+@Slf4j
+public class CountStrategyPaginationInterceptor extends PaginationInnerInterceptor {
+
+    /**
+     * SQL + 参数 -> 总数
+     */
+    private final Cache<String, Long> counts;
+
+    public CountStrategyPaginationInterceptor(DbType dbType, Duration countCacheTtl) {
+        super(dbType);
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(countCacheTtl)
+                .build();
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (!(page instanceof CountingPage<?> countingPage)) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+        switch (countingPage.countMode()) {
+            case CACHED -> {
+                String key = cacheKey(ms, parameter, boundSql);
+                Long cached = counts.getIfPresent(key);
+                if (cached != null) {
+                    page.setTotal(cached);
+                    return continuePage(page);
+                }
+                boolean proceed = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+                counts.put(key, page.getTotal());
+                return proceed;
+            }
+            case ESTIMATED -> {
+                String key = "estimate|" + cacheKey(ms, parameter, boundSql);
+                Long estimate = counts.getIfPresent(key);
+                if (estimate == null) {
+                    try {
+                        estimate = explainRows(executor, ms, parameter, boundSql);
+                    } catch (SQLException e) {
+                        log.warn("分页总数估算失败，改为精确统计: {}", ms.getId(), e);
+                        return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+                    }
+                    counts.put(key, estimate);
+                }
+                page.setTotal(estimate);
+                countingPage.markEstimated();
+                // 估算值可能偏小甚至为 0，始终执行数据查询
+                return true;
+            }
+            default -> {
+                return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+        }
+    }
+
+    /**
+     * EXPLAIN 原始查询，取首个访问表的 rows * filtered 作为估算值
+     */
+    private long explainRows(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) throws SQLException {
+        Connection connection = executor.getTransaction().getConnection();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(ms, parameter, boundSql).setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return 0;
+                }
+                return Math.round(resultSet.getLong("rows") * resultSet.getDouble("filtered") / 100);
+            }
+        }
+    }
+
+    /**
+     * 规范化的查询标识：语句ID + SQL + 绑定参数值
+     */
+    private static String cacheKey(MappedStatement ms, Object parameter, BoundSql boundSql) {
+        StringBuilder key = new StringBuilder(ms.getId()).append('|').append(boundSql.getSql());
+        Configuration configuration = ms.getConfiguration();
+        MetaObject metaObject = parameter == null ? null : configuration.newMetaObject(parameter);
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                value = metaObject.getValue(property);
+            }
+            key.append('|').append(value);
+        }
+        return key.toString();
+    }
+}
@@ -9,6 +9,6 @@ public abstract class BasicServiceImpl<M extends BaseMapper<T>, T extends BasicF
     @SuppressWarnings("unchecked")
     @Override
     public <P extends PageParam> Page<T> page(P p) {
-        return getBaseMapper().selectPage(p.createPage(), p.createQuery());
+        return getBaseMapper().selectPage(p.createPage(), p.createPageQuery());
     }
 }
@@ -0,0 +1,29 @@
+package com.xyex.infrastructure.model;
+
+/**
+ * 分页总数统计方式
+ * <p>
+ * 由 {@link PageParam#countMode()} 决定，{@code CountStrategyPaginationInterceptor} 按此执行
+ */
+public enum CountMode {
+
+    /**
+     * 每次执行 COUNT(*)
+     */
+    EXACT,
+
+    /**
+     * 执行 COUNT(*)，结果按 SQL + 参数缓存一小段时间
+     */
+    CACHED,
+
+    /**
+     * 使用 EXPLAIN 的行数估算值，不扫描数据
+     */
+    ESTIMATED,
+
+    /**
+     * 不统计总数，只返回 hasMore
+     */
+    NONE
+}
@@ -0,0 +1,54 @@
+package com.xyex.infrastructure.model;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+
+/**
+ * 按 {@link CountMode} 统计总数的分页对象
+ *
+ * @param <T> 记录类型
+ */
+@Schema(name = "CountingPage", description = "分页结果（总数可能为缓存值或估算值）")
+public class CountingPage<T> extends Page<T> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final CountMode countMode;
+
+    private boolean totalEstimated;
+
+    public CountingPage(long current, long size, CountMode countMode) {
+        super(current, size, countMode != CountMode.NONE);
+        this.countMode = countMode;
+    }
+
+    public CountMode countMode() {
+        return countMode;
+    }
+
+    /**
+     * 标记总数为估算值
+     */
+    public void markEstimated() {
+        this.totalEstimated = true;
+    }
+
+    @Schema(description = "总数是否为估算值")
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
+
+    /**
+     * 是否还有下一页：有准确总数时按总页数判断，否则按本页是否取满判断
+     */
+    @Schema(description = "是否还有下一页")
+    public boolean isHasMore() {
+        if (countMode == CountMode.NONE || totalEstimated) {
+            return getRecords().size() >= getSize();
+        }
+        return getCurrent() < getPages();
+    }
+}
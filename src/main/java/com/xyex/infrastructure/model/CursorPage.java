@@ -0,0 +1,102 @@
+package com.xyex.infrastructure.model;
+
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 游标（seek）分页对象
+ * <p>
+ * 固定从第一页取 size 条、不执行 COUNT，按 (排序列, id) 倒序排列，
+ * 写入结果时根据最后一条记录生成下一页游标。
+ *
+ * @param <T> 记录类型
+ */
+@Schema(name = "CursorPage", description = "游标分页结果")
+public class CursorPage<T> extends Page<T> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 排序列（数据库列名与实体属性名一致）
+     */
+    private final String sortColumn;
+
+    /**
+     * 下一页游标，为 null 表示没有更多数据
+     */
+    @Getter
+    @Schema(description = "下一页游标，为空表示没有更多数据")
+    private String nextCursor;
+
+    public CursorPage(long size, String sortColumn) {
+        super(1, size, false);
+        this.sortColumn = sortColumn;
+        addOrder(OrderItem.desc(sortColumn), OrderItem.desc("id"));
+    }
+
+    @Override
+    public Page<T> setRecords(List<T> records) {
+        super.setRecords(records);
+        this.nextCursor = null;
+        if (records != null && !records.isEmpty() && records.size() >= getSize()) {
+            MetaObject last = SystemMetaObject.forObject(records.get(records.size() - 1));
+            this.nextCursor = encode(last.getValue(sortColumn), last.getValue("id"));
+        }
+        return this;
+    }
+
+    /**
+     * 游标解码结果
+     *
+     * @param sortValue 排序列的值
+     * @param id        记录ID
+     */
+    public record Cursor(Object sortValue, Long id) {
+    }
+
+    /**
+     * 编码游标：Base64URL("排序值|id")
+     */
+    public static String encode(Object sortValue, Object id) {
+        if (sortValue == null || id == null) {
+            return null;
+        }
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            String sortValue = raw.substring(0, index);
+            Long id = Long.valueOf(raw.substring(index + 1));
+            try {
+                return new Cursor(LocalDateTime.parse(sortValue), id);
+            } catch (DateTimeParseException e) {
+                return new Cursor(sortValue, id);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的分页游标");
+        }
+    }
+}
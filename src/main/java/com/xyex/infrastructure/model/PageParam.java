@@ -1,7 +1,9 @@
 package com.xyex.infrastructure.model;
 
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -45,15 +47,60 @@ public abstract class PageParam implements Serializable {
     @Schema(description = "关键词搜索")
     private String keyword;
 
+    @Schema(description = "游标分页：首页传空字符串，之后传上一页返回的 nextCursor；为空时使用页码分页")
+    private String cursor;
+
     /**
      * 创建分页对象
+     * 游标模式下返回 {@link CursorPage}，不执行 COUNT；非精确统计时返回 {@link CountingPage}
      *
      * @return Page
      */
     public final <T> Page<T> createPage() {
+        if (this.cursor != null) {
+            return new CursorPage<>(this.getPageSize(), cursorColumn());
+        }
+        CountMode countMode = countMode();
+        if (countMode != CountMode.EXACT) {
+            return new CountingPage<>(this.getPageNo(), this.getPageSize(), countMode);
+        }
         return new Page<>(this.getPageNo(), this.getPageSize());
     }
 
+    /**
+     * 页码分页的总数统计方式，默认每次精确 COUNT
+     * 子类可重写以使用缓存、估算或不统计
+     */
+    protected CountMode countMode() {
+        return CountMode.EXACT;
+    }
+
+    /**
+     * 创建分页查询条件
+     * 在 {@link #createQuery()} 的基础上，游标模式下追加 {@code (排序列, id) < (?, ?)} 的 seek 条件
+     *
+     * @return Wrapper
+     */
+    @SuppressWarnings("unchecked")
+    public final <T> Wrapper<T> createPageQuery() {
+        Wrapper<T> query = createQuery();
+        if (this.cursor == null || this.cursor.isEmpty()) {
+            return query;
+        }
+        AbstractWrapper<T, ?, ?> wrapper = query == null ? new QueryWrapper<>() : (AbstractWrapper<T, ?, ?>) query;
+        CursorPage.Cursor position = CursorPage.decode(this.cursor);
+        wrapper.apply("(" + cursorColumn() + ", id) < ({0}, {1})", position.sortValue(), position.id());
+        return wrapper;
+    }
+
+    /**
+     * 游标分页使用的排序列，默认按创建时间
+     * 子类可重写以使用其他单调列
+     */
+    protected String cursorColumn() {
+        return "createTime";
+    }
+
     /**
      * 创建查询条件
      * 默认实现：返回空的查询条件
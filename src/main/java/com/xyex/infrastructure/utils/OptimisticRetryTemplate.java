@@ -0,0 +1,126 @@
+package com.xyex.infrastructure.utils;
+
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 乐观锁写入重试
+ * <p>
+ * 每次尝试在独立事务中执行“读取 -> 计算 -> 带版本号更新”，版本冲突（更新 0 行）时按指数退避加随机抖动后重试，
+ * 重新读取最新数据。在外层事务中调用时只尝试一次：可重复读隔离级别下同一事务内重新读取仍是旧快照，重试没有意义。
+ * <p>
+ * 按操作名统计调用、冲突与重试次数，用于观察写入争用。
+ */
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 单个操作的争用统计
+     *
+     * @param operation    操作名
+     * @param calls        调用次数
+     * @param conflicts    版本冲突次数
+     * @param retries      重试次数
+     * @param exhausted    重试用尽、返回冲突的次数
+     * @param conflictRate 每次调用的平均冲突数
+     */
+    public record Stats(String operation, long calls, long conflicts, long retries, long exhausted,
+                        double conflictRate) {
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+
+    public OptimisticRetryTemplate(TransactionTemplate transactionTemplate,
+                                   @Value("${commodity.optimistic-lock.max-attempts:3}") int maxAttempts,
+                                   @Value("${commodity.optimistic-lock.backoff:10}") long backoffMillis,
+                                   @Value("${commodity.optimistic-lock.max-backoff:100}") long maxBackoffMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * 执行带版本号的写入
+     *
+     * @param operation 操作名，用于统计
+     * @param attempt   一次尝试，版本冲突时返回 false；抛出的异常直接向上传播，不重试
+     * @throws BusinessException 重试用尽仍冲突
+     */
+    public void execute(String operation, BooleanSupplier attempt) {
+        Counters stat = counters.computeIfAbsent(operation, k -> new Counters());
+        stat.calls.increment();
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : maxAttempts;
+        for (int i = 1; ; i++) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> attempt.getAsBoolean()))) {
+                return;
+            }
+            stat.conflicts.increment();
+            if (i >= attempts) {
+                stat.exhausted.increment();
+                log.warn("乐观锁重试用尽 - 操作: {}, 尝试次数: {}", operation, i);
+                throw new BusinessException(ErrorCode.CONFLICT, "数据已被并发修改，请稍后重试");
+            }
+            stat.retries.increment();
+            backoff(i);
+        }
+    }
+
+    /**
+     * 争用统计，按冲突次数降序
+     */
+    public List<Stats> stats() {
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    Counters c = entry.getValue();
+                    long calls = c.calls.sum();
+                    long conflicts = c.conflicts.sum();
+                    return new Stats(entry.getKey(), calls, conflicts, c.retries.sum(), c.exhausted.sum(),
+                            calls == 0 ? 0 : (double) conflicts / calls);
+                })
+                .sorted(Comparator.comparingLong(Stats::conflicts).reversed())
+                .toList();
+    }
+
+    /**
+     * 全抖动指数退避：在 [0, min(上限, 基数 * 2^(n-1))] 内随机等待，分散同时冲突的写入
+     */
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待重试被中断");
+        }
+    }
+}
@@ -1,12 +1,123 @@
 package com.xyex.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.Commodity;
+import com.xyex.entity.res.CommodityCardVO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * 商品 Mapper
  */
 @Mapper
 public interface CommodityMapper extends BaseMapper<Commodity> {
+
+    /**
+     * 批量累加浏览量：一条 UPDATE ... CASE id 语句完成
+     *
+     * @param deltas 商品ID -> 浏览量增量
+     * @return 影响行数
+     */
+    @Update({"<script>",
+            "UPDATE commodity SET viewNum = IFNULL(viewNum, 0) + CASE id",
+            "<foreach collection='deltas' index='id' item='delta'> WHEN #{id} THEN #{delta} </foreach>",
+            "ELSE 0 END WHERE id IN",
+            "<foreach collection='deltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int incrementViewNums(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 原子调整收藏量（数据库侧累加，不低于 0）
+     *
+     * @param id    商品ID
+     * @param delta 增量（可为负）
+     * @return 影响行数
+     */
+    @Update("UPDATE commodity SET favourNum = GREATEST(IFNULL(favourNum, 0) + #{delta}, 0) WHERE id = #{id}")
+    int addFavourNum(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * 批量调整收藏量：一条 UPDATE ... CASE id 语句完成
+     *
+     * @param deltas 商品ID -> 收藏量增量
+     * @return 影响行数
+     */
+    @Update({"<script>",
+            "UPDATE commodity SET favourNum = GREATEST(IFNULL(favourNum, 0) + CASE id",
+            "<foreach collection='deltas' index='id' item='delta'> WHEN #{id} THEN #{delta} </foreach>",
+            "ELSE 0 END, 0) WHERE id IN",
+            "<foreach collection='deltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int addFavourNums(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 带守卫的库存扣减：库存不足或商品已删除时不更新
+     *
+     * @param id     商品ID
+     * @param amount 扣减数量
+     * @return 影响行数，0 表示被守卫拒绝
+     */
+    @Update("UPDATE commodity SET commodityInventory = commodityInventory - #{amount}"
+            + " WHERE id = #{id} AND isDelete = 0 AND commodityInventory >= #{amount}")
+    int deductInventory(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * 流式查询：MySQL 驱动逐行读取（fetchSize = Integer.MIN_VALUE），结果逐条交给 handler，不在内存中累积
+     *
+     * @param wrapper 查询条件
+     * @param handler 逐行处理
+     */
+    @Select("SELECT * FROM commodity ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Commodity.class)
+    void streamList(@Param(Constants.WRAPPER) Wrapper<Commodity> wrapper, ResultHandler<Commodity> handler);
+
+    /**
+     * 分页查询商品卡片，只查询指定列
+     *
+     * @param page    分页对象
+     * @param columns 列清单（由 {@link com.xyex.entity.req.CommodityQueryDTO#cardColumns()} 按白名单生成）
+     * @param wrapper 查询条件
+     * @return 分页结果
+     */
+    @Select("SELECT ${columns} FROM commodity ${ew.customSqlSegment}")
+    Page<CommodityCardVO> selectCardPage(Page<CommodityCardVO> page, @Param("columns") String columns,
+                                         @Param(Constants.WRAPPER) Wrapper<Commodity> wrapper);
+
+    /**
+     * 查询商品卡片，只查询指定列
+     *
+     * @param columns 列清单（由 {@link com.xyex.entity.req.CommodityQueryDTO#cardColumns()} 按白名单生成）
+     * @param wrapper 查询条件
+     * @return 商品卡片
+     */
+    @Select("SELECT ${columns} FROM commodity ${ew.customSqlSegment}")
+    List<CommodityCardVO> selectCards(@Param("columns") String columns, @Param(Constants.WRAPPER) Wrapper<Commodity> wrapper);
+
+    /**
+     * 流式读取用户与未删除商品的正向交互（收藏、好评、下单），同一用户与商品只返回一行
+     *
+     * @param minScore 计为正向交互的最低评分
+     * @param handler  逐行处理，每行包含 userId、commodityId
+     */
+    @Select("SELECT i.userId, i.commodityId FROM ("
+            + " SELECT userId, commodityId FROM user_commodity_favorites WHERE isDelete = 0 AND status <> '0'"
+            + " UNION SELECT userId, commodityId FROM commodity_score WHERE isDelete = 0 AND score >= #{minScore}"
+            + " UNION SELECT userId, commodityId FROM commodity_order WHERE isDelete = 0"
+            + ") i JOIN commodity c ON c.id = i.commodityId AND c.isDelete = 0")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Map.class)
+    void streamInteractions(@Param("minScore") int minScore, ResultHandler<Map<String, Object>> handler);
 }
@@ -1,8 +1,26 @@
 package com.xyex.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.xyex.entity.model.CommodityOrder;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 public interface CommodityOrderMapper extends BaseMapper<CommodityOrder> {
-    
+
+    /**
+     * 流式查询：MySQL 驱动逐行读取（fetchSize = Integer.MIN_VALUE），结果逐条交给 handler，不在内存中累积
+     *
+     * @param wrapper 查询条件
+     * @param handler 逐行处理
+     */
+    @Select("SELECT * FROM commodity_order ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(CommodityOrder.class)
+    void streamList(@Param(Constants.WRAPPER) Wrapper<CommodityOrder> wrapper, ResultHandler<CommodityOrder> handler);
 }
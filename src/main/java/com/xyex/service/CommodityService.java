@@ -3,14 +3,31 @@ package com.xyex.service;
 import java.util.List;
 
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import jakarta.servlet.http.HttpServletResponse;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.Commodity;
+import com.xyex.entity.req.CommodityBulkDTO;
 import com.xyex.entity.req.CommodityOrderDTO;
 import com.xyex.entity.req.CommodityQueryDTO;
 import com.xyex.entity.req.CommodityScoreDTO;
 import com.xyex.entity.req.CommodityTypeDTO;
+import com.xyex.entity.req.FlashSaleDTO;
+import com.xyex.entity.res.BulkResultVO;
+import com.xyex.entity.res.CommodityCardVO;
+import com.xyex.entity.res.CommodityFacetVO;
+import com.xyex.entity.res.CommoditySuggestVO;
+import com.xyex.entity.res.FlashSaleTicketVO;
+import com.xyex.entity.res.FlashSaleVO;
+import com.xyex.entity.res.ImportJobVO;
+import com.xyex.entity.res.SimilarItemVO;
+import com.xyex.entity.res.TrendingItemVO;
+import com.xyex.infrastructure.cache.TwoLevelCache;
+import com.xyex.infrastructure.utils.OptimisticRetryTemplate;
+import com.xyex.service.order.OrderIngestionPipeline;
 import com.xyex.infrastructure.model.BasicService;
+import com.xyex.service.trending.TrendingWindow;
 import com.xyex.entity.model.CommodityOrder;
 import com.xyex.entity.model.CommodityScore;
 import com.xyex.entity.model.CommodityType;
@@ -21,12 +38,47 @@ import com.xyex.entity.model.CommodityType;
 public interface CommodityService extends BasicService<Commodity> {
 
     /**
-     * 分页查询商品列表
+     * 分页查询商品列表（卡片投影，只查询卡片所需列，支持 fields 稀疏字段）
      *
      * @param queryDTO 查询条件
-     * @return 商品分页数据
+     * @return 商品卡片分页数据
      */
-    Page<Commodity> listCommodity(CommodityQueryDTO queryDTO);
+    Page<CommodityCardVO> listCommodity(CommodityQueryDTO queryDTO);
+
+    /**
+     * 商品分面统计（分类、价格区间、上架状态）
+     *
+     * @param queryDTO 查询条件
+     * @return 分面统计
+     */
+    CommodityFacetVO getFacets(CommodityQueryDTO queryDTO);
+
+    /**
+     * 热门商品排行（按窗口内浏览、收藏、下单加权）
+     *
+     * @param window 统计窗口
+     * @param limit  返回条数
+     * @return 热门商品
+     */
+    List<TrendingItemVO> listTrending(TrendingWindow window, int limit);
+
+    /**
+     * 商品名称前缀补全
+     *
+     * @param prefix 用户输入的前缀
+     * @param limit  返回条数
+     * @return 按热度降序的补全建议
+     */
+    List<CommoditySuggestVO> suggestCommodity(String prefix, int limit);
+
+    /**
+     * 相似商品（基于用户共现）
+     *
+     * @param id    商品ID
+     * @param limit 返回条数
+     * @return 按相似度降序的商品
+     */
+    List<SimilarItemVO> listSimilar(Long id, int limit);
 
     /**
      * 获取商品详情
@@ -36,6 +88,29 @@ public interface CommodityService extends BasicService<Commodity> {
      */
     Commodity getCommodityDetail(Long id);
 
+    /**
+     * 商品列表的 ETag（由商品数据版本与分类字典版本决定，不查询数据库）
+     *
+     * @return ETag
+     */
+    String getCommodityListETag();
+
+    /**
+     * 商品详情当前状态的 ETag，不计入浏览量
+     *
+     * @param id 商品ID
+     * @return ETag，商品不存在时返回 null
+     */
+    String getCommodityDetailETag(Long id);
+
+    /**
+     * 已返回的商品详情对应的 ETag
+     *
+     * @param detail 商品详情
+     * @return ETag
+     */
+    String getCommodityDetailETag(Commodity detail);
+
     /**
      * 创建商品
      *
@@ -57,6 +132,54 @@ public interface CommodityService extends BasicService<Commodity> {
      */
     void deleteCommodity(List<Long> commodityIds);
 
+    /**
+     * 批量软删除商品，不存在或已删除的ID记为失败，其余照常删除
+     *
+     * @param commodityIds 商品ID
+     * @return 逐个ID的处理结果
+     */
+    BulkResultVO bulkDeleteCommodity(List<Long> commodityIds);
+
+    /**
+     * 批量更新商品上下架状态、价格或分类
+     *
+     * @param bulkDTO 批量更新参数
+     * @return 逐个ID的处理结果
+     */
+    BulkResultVO bulkUpdateCommodity(CommodityBulkDTO bulkDTO);
+
+    /**
+     * 提交商品 Excel 导入任务（异步执行）
+     *
+     * @param file Excel 文件
+     * @return 任务初始状态
+     */
+    ImportJobVO importCommodity(MultipartFile file);
+
+    /**
+     * 查询商品导入任务状态
+     *
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    ImportJobVO getImportJob(String jobId);
+
+    /**
+     * 流式导出商品 Excel
+     *
+     * @param queryDTO 查询条件
+     * @param response HTTP 响应对象
+     */
+    void exportCommodity(CommodityQueryDTO queryDTO, HttpServletResponse response);
+
+    /**
+     * 流式导出商品订单 Excel
+     *
+     * @param queryDTO 查询条件
+     * @param response HTTP 响应对象
+     */
+    void exportOrder(CommodityOrderDTO queryDTO, HttpServletResponse response);
+
     /**
      * 增加商品浏览量
      *
@@ -86,11 +209,73 @@ public interface CommodityService extends BasicService<Commodity> {
     void buyCommodity(Commodity commodity);
 
     /**
-     * 创建商品订单
+     * 获取商品详情缓存统计
+     *
+     * @return 命中率、淘汰次数等统计信息
+     */
+    TwoLevelCache.Stats getDetailCacheStats();
+
+    /**
+     * 获取订单写入流水线统计
+     *
+     * @return 批次大小、排队深度、等待时间等统计信息
+     */
+    OrderIngestionPipeline.Stats getOrderWriterStats();
+
+    /**
+     * 获取商品写入的乐观锁争用统计
+     *
+     * @return 各写入操作的冲突与重试次数
+     */
+    List<OptimisticRetryTemplate.Stats> getWriteContentionStats();
+
+    /**
+     * 创建商品订单，按购买数量预占库存，超时未支付时回补
      *
      * @param commodity 商品信息
      */
     void addOrder(CommodityOrderDTO commodityOrderDTO);
+
+    /**
+     * 开启商品秒杀：预热库存并按令牌桶限流
+     *
+     * @param id           商品ID
+     * @param flashSaleDTO 限流参数
+     * @return 秒杀状态
+     */
+    FlashSaleVO startFlashSale(Long id, FlashSaleDTO flashSaleDTO);
+
+    /**
+     * 关闭商品秒杀
+     *
+     * @param id 商品ID
+     */
+    void stopFlashSale(Long id);
+
+    /**
+     * 获取商品秒杀状态
+     *
+     * @param id 商品ID
+     * @return 秒杀状态
+     */
+    FlashSaleVO getFlashSale(Long id);
+
+    /**
+     * 秒杀下单：立即返回排队凭证，订单异步创建
+     *
+     * @param id                商品ID
+     * @param commodityOrderDTO 订单信息
+     * @return 排队凭证
+     */
+    FlashSaleTicketVO purchaseFlashSale(Long id, CommodityOrderDTO commodityOrderDTO);
+
+    /**
+     * 查询秒杀排队结果
+     *
+     * @param ticketId 凭证ID
+     * @return 排队凭证
+     */
+    FlashSaleTicketVO getFlashSaleTicket(String ticketId);
     
     /**
      * 获取商品订单列表
@@ -176,6 +361,13 @@ public interface CommodityService extends BasicService<Commodity> {
      * @return 商品类型列表
      */
     Page<CommodityType> listType(CommodityTypeDTO queryDTO);
+
+    /**
+     * 商品类型列表的 ETag（分类字典快照版本）
+     *
+     * @return ETag
+     */
+    String getTypeListETag();
     /**
      * 获取商品类型详情
      *
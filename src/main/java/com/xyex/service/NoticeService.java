@@ -16,6 +16,10 @@ public interface NoticeService extends BasicService<Notice> {
      * 获取公告列表
      */
     Page<Notice> listNotice(NoticeDTO noticeDTO);
+    /**
+     * 公告列表的 ETag（公告数据版本，不查询数据库）
+     */
+    String getNoticeListETag();
     /**
      * 获取公告详情
      */
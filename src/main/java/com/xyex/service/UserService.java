@@ -9,6 +9,7 @@ import com.xyex.entity.req.UserQueryDTO;
 import com.xyex.entity.res.UserProfileVO;
 import com.xyex.infrastructure.model.BasicService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * 用户服务接口
@@ -52,6 +53,14 @@ public interface UserService extends BasicService<UserInfo> {
      */
     Page<UserInfo> listUsers(UserQueryDTO userQueryDTO);
 
+    /**
+     * 流式导出用户 Excel（管理员）
+     *
+     * @param userQueryDTO 查询参数
+     * @param response     HTTP 响应对象
+     */
+    void exportUsers(UserQueryDTO userQueryDTO, HttpServletResponse response);
+
     /**
      * 获取用户公开信息展示页面
      * 展示用户的非敏感信息
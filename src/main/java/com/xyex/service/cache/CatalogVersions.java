@@ -0,0 +1,156 @@
+package com.xyex.service.cache;
+
+import com.xyex.infrastructure.cache.SharedCacheTier;
+import com.xyex.service.event.CommodityChangedEvent;
+import com.xyex.service.event.CommodityTypeChangedEvent;
+import com.xyex.service.event.NoticeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 目录类只读接口的版本号，用于生成 ETag
+ * <p>
+ * 版本号在写操作提交后递增，且排在其他监听器（索引、缓存）之后，
+ * 保证读到新版本号时数据源已是新数据。调用方应先取版本号再查询数据：
+ * 并发写入时最多得到"旧 ETag + 新数据"，只会多一次 200，不会把旧数据当作最新。
+ * <p>
+ * 未启用共享缓存层时版本号只在本进程内有效，ETag 带上启动标识避免重启后与旧值重复。
+ * 启用共享缓存层（多节点部署）时版本号保存在共享层中（INCRBY），任一节点的写入对所有节点可见；
+ * 计数不存在时以当前时间戳初始化，共享层数据丢失后也不会回到旧值。共享层不可用时每次返回不同的版本号，
+ * 即不再返回 304；递增失败的版本在下次读取时补递增。
+ */
+@Slf4j
+@Component
+public class CatalogVersions {
+
+    private static final String KEY_PREFIX = "catalog:version:";
+    private static final String COMMODITIES = "commodities";
+    private static final String NOTICES = "notices";
+    private static final String TYPES = "types";
+
+    private final SharedCacheTier shared;
+
+    /**
+     * ETag 前缀：本地模式为启动标识，共享模式所有节点一致
+     */
+    private final String epoch;
+
+    private final Map<String, AtomicLong> local = new ConcurrentHashMap<>();
+
+    /**
+     * 共享模式下递增失败、待补递增的版本
+     */
+    private final Set<String> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    public CatalogVersions(SharedCacheTier shared) {
+        this.shared = shared;
+        this.epoch = isShared() ? "g" : Long.toString(System.currentTimeMillis(), 36);
+    }
+
+    public boolean isShared() {
+        return shared != SharedCacheTier.NONE;
+    }
+
+    /**
+     * 商品数据版本（任一商品新增、修改、删除或计数落库后递增）
+     */
+    public long commodities() {
+        return read(COMMODITIES);
+    }
+
+    /**
+     * 公告数据版本
+     */
+    public long notices() {
+        return read(NOTICES);
+    }
+
+    /**
+     * 分类数据版本（共享模式下供分类字典判断本节点快照是否过期）
+     */
+    public long types() {
+        return read(TYPES);
+    }
+
+    /**
+     * 生成强 ETag："启动标识-部件1-部件2..."
+     *
+     * @param parts 决定响应内容的版本部件
+     * @return 带引号的 ETag
+     */
+    public String tag(Object... parts) {
+        StringJoiner joiner = new StringJoiner("-", "\"", "\"");
+        joiner.add(epoch);
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return joiner.toString();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        bump(COMMODITIES);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoticeChanged(NoticeChangedEvent event) {
+        bump(NOTICES);
+    }
+
+    /**
+     * 分类版本先于分类字典重新加载递增，字典加载前读取版本号，快照版本与内容对应
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityTypeChanged(CommodityTypeChangedEvent event) {
+        bump(TYPES);
+    }
+
+    private void bump(String name) {
+        if (!isShared()) {
+            local.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+            return;
+        }
+        if (shared.increment(KEY_PREFIX + name, 1) == null) {
+            pendingBumps.add(name);
+        }
+    }
+
+    private long read(String name) {
+        if (!isShared()) {
+            return local.computeIfAbsent(name, k -> new AtomicLong()).get();
+        }
+        String key = KEY_PREFIX + name;
+        if (pendingBumps.remove(name) && shared.increment(key, 1) == null) {
+            pendingBumps.add(name);
+            return nextUnknown();
+        }
+        String value = shared.get(key);
+        if (value != null) {
+            return Long.parseLong(value);
+        }
+        // 不存在（或共享层不可用）：以时间戳初始化，并发初始化只会让版本号更大
+        Long initialized = shared.increment(key, System.currentTimeMillis());
+        return initialized != null ? initialized : nextUnknown();
+    }
+
+    /**
+     * 随机负数，不会与正常版本号相同，也几乎不会与之前发出的 ETag 相同
+     */
+    private long nextUnknown() {
+        log.debug("共享版本号不可用，本次不返回 304");
+        return ThreadLocalRandom.current().nextLong(Long.MIN_VALUE, 0);
+    }
+}
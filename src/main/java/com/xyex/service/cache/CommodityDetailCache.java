@@ -0,0 +1,47 @@
+package com.xyex.service.cache;
+
+import com.xyex.entity.model.Commodity;
+import com.xyex.infrastructure.cache.SharedCacheTier;
+import com.xyex.infrastructure.cache.TwoLevelCache;
+import com.xyex.service.event.CommodityChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 商品详情缓存
+ * 商品的任何写操作（更新、删除、购买、收藏计数）提交后都会使对应条目失效
+ */
+@Component
+public class CommodityDetailCache {
+
+    private final TwoLevelCache<Long, Commodity> cache;
+
+    public CommodityDetailCache(SharedCacheTier sharedCacheTier,
+                                @Value("${cache.commodity.maximum-size:10000}") long maximumSize,
+                                @Value("${cache.commodity.local-ttl:60}") long localTtlSeconds,
+                                @Value("${cache.commodity.shared-ttl:600}") long sharedTtlSeconds) {
+        this.cache = new TwoLevelCache<>("commodity", Commodity.class, maximumSize, Duration.ofSeconds(localTtlSeconds),
+                sharedCacheTier, Duration.ofSeconds(sharedTtlSeconds));
+    }
+
+    /**
+     * 读取商品详情，未命中时通过 loader 加载
+     * 返回的对象为共享实例，调用方不得修改
+     */
+    public Commodity get(Long id, Function<Long, Commodity> loader) {
+        return cache.get(id, loader);
+    }
+
+    public TwoLevelCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        cache.evict(event.commodityId());
+    }
+}
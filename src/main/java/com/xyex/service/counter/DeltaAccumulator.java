@@ -0,0 +1,102 @@
+package com.xyex.service.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按ID聚合的增量累加器
+ * <p>
+ * 每个ID对应一个分段计数的 {@link LongAdder}，热点ID上的并发累加不会互相争用。
+ * {@link #drain()} 逐个 {@code sumThenReset}，与并发累加交错时不会丢失增量：
+ * 未被本次取走的增量会留到下一次。
+ */
+public class DeltaAccumulator {
+
+    private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+
+    /**
+     * 累加增量
+     *
+     * @param id    ID
+     * @param delta 增量（可为负）
+     */
+    public void add(Long id, long delta) {
+        deltas.computeIfAbsent(id, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 尚未取走的增量
+     *
+     * @param id ID
+     * @return 增量
+     */
+    public long pending(Long id) {
+        LongAdder adder = deltas.get(id);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 取走所有非零增量并清零
+     *
+     * @return ID -> 增量
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> drained = new HashMap<>();
+        deltas.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(id, delta);
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * 把所有非零增量转移到另一个累加器
+     * <p>
+     * 每个ID先加到目标、再从本累加器扣除，先读本累加器、再读目标的一方在任何时刻都不会漏掉增量
+     * （转移途中可能重复计入一次）。
+     *
+     * @param target 目标累加器
+     * @return ID -> 转移的增量
+     */
+    public Map<Long, Long> transferTo(DeltaAccumulator target) {
+        Map<Long, Long> transferred = new HashMap<>();
+        deltas.forEach((id, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                target.add(id, delta);
+                adder.add(-delta);
+                transferred.put(id, delta);
+            }
+        });
+        return transferred;
+    }
+
+    /**
+     * 写入失败时把取走的增量放回
+     *
+     * @param drained {@link #drain()} 的返回值
+     */
+    public void restore(Map<Long, Long> drained) {
+        drained.forEach(this::add);
+    }
+
+    /**
+     * 丢弃ID的计数器（例如商品已删除）
+     *
+     * @param id ID
+     */
+    public void remove(Long id) {
+        deltas.remove(id);
+    }
+
+    /**
+     * 当前跟踪的ID数量
+     */
+    public int size() {
+        return deltas.size();
+    }
+}
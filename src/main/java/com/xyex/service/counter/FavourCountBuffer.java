@@ -0,0 +1,121 @@
+package com.xyex.service.counter;
+
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品收藏量合并写缓冲（可选）
+ * <p>
+ * 开启后收藏/取消收藏只在内存中按商品累加，同一商品的多次切换会相互抵消，
+ * 定时任务把非零增量合并成一条 {@code UPDATE ... CASE id} 写回。
+ * 增量在事务提交后才计入，收藏记录回滚时计数不受影响。
+ * 关闭时（默认）调用方应直接执行数据库侧原子增减。
+ */
+@Slf4j
+@Component
+public class FavourCountBuffer {
+
+    /**
+     * 单条 UPDATE 语句包含的最大商品数
+     */
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final CommodityMapper commodityMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    private final DeltaAccumulator accumulator = new DeltaAccumulator();
+
+    public FavourCountBuffer(CommodityMapper commodityMapper, ApplicationEventPublisher eventPublisher,
+                             @Value("${commodity.counter.favour-buffer-enabled:false}") boolean enabled) {
+        this.commodityMapper = commodityMapper;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录收藏量增量，处于事务中时在提交后计入
+     *
+     * @param commodityId 商品ID
+     * @param delta       增量（可为负）
+     */
+    public void add(Long commodityId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accumulator.add(commodityId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accumulator.add(commodityId, delta);
+            }
+        });
+    }
+
+    /**
+     * 尚未落库的收藏量增量
+     *
+     * @param commodityId 商品ID
+     * @return 增量
+     */
+    public long pending(Long commodityId) {
+        return enabled ? accumulator.pending(commodityId) : 0;
+    }
+
+    /**
+     * 定时把收藏量增量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${commodity.counter.favour-flush-interval:1000}")
+    public void flush() {
+        Map<Long, Long> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(drained.entrySet());
+        for (int from = 0; from < entries.size(); from += FLUSH_CHUNK_SIZE) {
+            Map<Long, Long> chunk = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : entries.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, entries.size()))) {
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                commodityMapper.addFavourNums(chunk);
+            } catch (Exception e) {
+                // 放回增量，下个周期重试
+                accumulator.restore(chunk);
+                log.error("收藏量批量写回失败，商品数: {}", chunk.size(), e);
+                continue;
+            }
+            chunk.keySet().forEach(id -> eventPublisher.publishEvent(CommodityChangedEvent.counter(id)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() == CommodityChangedEvent.Type.DELETE) {
+            accumulator.remove(event.commodityId());
+        }
+    }
+}
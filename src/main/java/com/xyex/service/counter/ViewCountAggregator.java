@@ -0,0 +1,98 @@
+package com.xyex.service.counter;
+
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品浏览量写后聚合器
+ * <p>
+ * 详情页浏览只在内存中累加，定时任务把各商品的增量合并成一条
+ * {@code UPDATE ... SET viewNum = viewNum + CASE id ...} 批量写回。
+ * 读取时可通过 {@link #pending(Long)} 把尚未落库的增量合并进返回值。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountAggregator {
+
+    /**
+     * 单条 UPDATE 语句包含的最大商品数
+     */
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final CommodityMapper commodityMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DeltaAccumulator accumulator = new DeltaAccumulator();
+
+    /**
+     * 记录一次浏览
+     *
+     * @param commodityId 商品ID
+     */
+    public void increment(Long commodityId) {
+        accumulator.add(commodityId, 1);
+    }
+
+    /**
+     * 尚未落库的浏览量增量
+     *
+     * @param commodityId 商品ID
+     * @return 增量
+     */
+    public long pending(Long commodityId) {
+        return accumulator.pending(commodityId);
+    }
+
+    /**
+     * 定时把浏览量增量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${commodity.counter.view-flush-interval:5000}")
+    public void flush() {
+        Map<Long, Long> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(drained.entrySet());
+        for (int from = 0; from < entries.size(); from += FLUSH_CHUNK_SIZE) {
+            Map<Long, Long> chunk = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : entries.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, entries.size()))) {
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                commodityMapper.incrementViewNums(chunk);
+            } catch (Exception e) {
+                // 放回增量，下个周期重试
+                accumulator.restore(chunk);
+                log.error("浏览量批量写回失败，商品数: {}", chunk.size(), e);
+                continue;
+            }
+            // 已落库的增量不再由 pending 补偿，需让缓存重新加载
+            chunk.keySet().forEach(id -> eventPublisher.publishEvent(CommodityChangedEvent.counter(id)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() == CommodityChangedEvent.Type.DELETE) {
+            accumulator.remove(event.commodityId());
+        }
+    }
+}
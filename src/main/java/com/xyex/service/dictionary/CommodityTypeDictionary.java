@@ -0,0 +1,187 @@
+package com.xyex.service.dictionary;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.xyex.entity.model.CommodityType;
+import com.xyex.entity.req.CommodityTypeDTO;
+import com.xyex.infrastructure.model.CursorPage;
+import com.xyex.mapper.CommodityTypeMapper;
+import com.xyex.service.cache.CatalogVersions;
+import com.xyex.service.event.CommodityTypeChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 商品分类字典
+ * <p>
+ * 分类表很小且极少变化，整表加载为不可变快照，读操作只访问内存。
+ * 分类变更提交后重新加载整表并原子替换快照，读者始终看到某个完整版本。
+ * 快照中的对象被所有请求共享，调用方不得修改。
+ * <p>
+ * 启用共享缓存层（多节点）时，快照版本取自 {@link CatalogVersions} 的共享分类版本（加载前读取），
+ * 其他节点修改分类后由定时任务发现版本变化并重新加载。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommodityTypeDictionary {
+
+    /**
+     * 与游标分页一致的排序：创建时间倒序，再按 id 倒序
+     */
+    private static final Comparator<CommodityType> ORDER = Comparator
+            .comparing(CommodityType::getCreateTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CommodityType::getId)
+            .reversed();
+
+    private final CommodityTypeMapper commodityTypeMapper;
+    private final CatalogVersions catalogVersions;
+
+    private volatile Snapshot snapshot;
+
+    private long loadedVersion = 0;
+
+    /**
+     * 分类快照
+     *
+     * @param byId    分类ID -> 分类
+     * @param ordered 按 {@link #ORDER} 排序的分类列表
+     * @param version 快照版本，本地模式每次重新加载递增，共享模式为加载前读取的共享分类版本
+     */
+    private record Snapshot(Map<Long, CommodityType> byId, List<CommodityType> ordered, long version) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityTypeChanged(CommodityTypeChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * 共享模式下检查其他节点是否修改了分类
+     */
+    @Scheduled(fixedDelayString = "${commodity.type.refresh-interval:10000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot;
+        if (catalogVersions.isShared() && current != null && catalogVersions.types() != current.version()) {
+            reload();
+        }
+    }
+
+    /**
+     * 按ID获取分类
+     *
+     * @param id 分类ID
+     * @return 分类，不存在时返回 null
+     */
+    public CommodityType get(Long id) {
+        return id == null ? null : snapshot().byId().get(id);
+    }
+
+    /**
+     * 分类名称
+     *
+     * @param id 分类ID
+     * @return 名称，不存在时返回 null
+     */
+    public String nameOf(Long id) {
+        CommodityType type = get(id);
+        return type == null ? null : type.getTypeName();
+    }
+
+    public boolean contains(Long id) {
+        return get(id) != null;
+    }
+
+    /**
+     * 当前快照版本，可直接用于 ETag（与快照内容一一对应，无需查询数据库）
+     */
+    public long version() {
+        return snapshot().version();
+    }
+
+    /**
+     * 全部分类
+     */
+    public List<CommodityType> all() {
+        return snapshot().ordered();
+    }
+
+    /**
+     * 在快照上分页（支持页码与游标两种模式）
+     *
+     * @param queryDTO 查询条件
+     * @return 分页结果
+     */
+    public Page<CommodityType> page(CommodityTypeDTO queryDTO) {
+        List<CommodityType> matched = queryDTO.getId() == null ? all()
+                : all().stream().filter(type -> queryDTO.getId().equals(type.getId())).toList();
+        Page<CommodityType> page = queryDTO.createPage();
+        page.setTotal(matched.size());
+
+        int from;
+        if (queryDTO.getCursor() != null && !queryDTO.getCursor().isEmpty()) {
+            CursorPage.Cursor cursor = CursorPage.decode(queryDTO.getCursor());
+            from = 0;
+            while (from < matched.size() && !isAfter(matched.get(from), cursor)) {
+                from++;
+            }
+        } else {
+            from = (int) Math.min((page.getCurrent() - 1) * page.getSize(), matched.size());
+        }
+        page.setRecords(matched.subList(from, (int) Math.min(from + page.getSize(), matched.size())));
+        return page;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // 启动完成前的访问同步加载一次
+            current = reload();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot reload() {
+        long version = catalogVersions.isShared() ? catalogVersions.types() : ++loadedVersion;
+        List<CommodityType> types = commodityTypeMapper.selectList(null).stream()
+                .filter(type -> !Objects.equals(type.getIsDelete(), 1))
+                .sorted(ORDER)
+                .toList();
+        Map<Long, CommodityType> byId = new HashMap<>();
+        types.forEach(type -> byId.put(type.getId(), type));
+        Snapshot next = new Snapshot(Map.copyOf(byId), types, version);
+        snapshot = next;
+        log.info("商品分类字典已加载 - 分类数: {}", types.size());
+        return next;
+    }
+
+    /**
+     * 是否严格位于游标之后（按 {@link #ORDER} 排序）
+     */
+    private static boolean isAfter(CommodityType type, CursorPage.Cursor cursor) {
+        if (!(cursor.sortValue() instanceof LocalDateTime cursorTime) || type.getCreateTime() == null) {
+            return type.getId() < cursor.id();
+        }
+        int compare = type.getCreateTime().compareTo(cursorTime);
+        return compare < 0 || (compare == 0 && type.getId() < cursor.id());
+    }
+}
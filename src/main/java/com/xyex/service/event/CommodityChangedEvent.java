@@ -0,0 +1,41 @@
+package com.xyex.service.event;
+
+import com.xyex.entity.model.Commodity;
+
+/**
+ * 商品变更事件
+ * 由商品写路径发布，内存索引、缓存等组件在事务提交后据此增量更新
+ *
+ * @param type        变更类型
+ * @param commodityId 商品ID
+ * @param snapshot    变更后的商品快照（删除、计数器变化时为 null）
+ */
+public record CommodityChangedEvent(Type type, Long commodityId, Commodity snapshot) {
+
+    public enum Type {
+        /**
+         * 新增或更新
+         */
+        UPSERT,
+        /**
+         * 删除
+         */
+        DELETE,
+        /**
+         * 浏览量、收藏量等计数器变化
+         */
+        COUNTER
+    }
+
+    public static CommodityChangedEvent upsert(Commodity commodity) {
+        return new CommodityChangedEvent(Type.UPSERT, commodity.getId(), commodity);
+    }
+
+    public static CommodityChangedEvent delete(Long commodityId) {
+        return new CommodityChangedEvent(Type.DELETE, commodityId, null);
+    }
+
+    public static CommodityChangedEvent counter(Long commodityId) {
+        return new CommodityChangedEvent(Type.COUNTER, commodityId, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.xyex.service.event;
+
+/**
+ * 用户与商品的正向交互事件（收藏、好评、下单）
+ * 相似商品索引在事务提交后据此增量更新共现计数
+ *
+ * @param userId      用户ID
+ * @param commodityId 商品ID
+ */
+public record CommodityInteractionEvent(Long userId, Long commodityId) {
+}
@@ -0,0 +1,8 @@
+package com.xyex.service.event;
+
+/**
+ * 商品分类变更事件
+ * 分类新增、修改、删除后发布，分类字典在事务提交后据此重新加载
+ */
+public record CommodityTypeChangedEvent() {
+}
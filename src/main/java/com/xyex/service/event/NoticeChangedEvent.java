@@ -0,0 +1,8 @@
+package com.xyex.service.event;
+
+/**
+ * 公告变更事件
+ * 公告新增、修改、删除后发布，公告列表的 ETag 版本号据此递增
+ */
+public record NoticeChangedEvent() {
+}
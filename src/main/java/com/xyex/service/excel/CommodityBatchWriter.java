@@ -0,0 +1,48 @@
+package com.xyex.service.excel;
+
+import com.xyex.entity.model.Commodity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 商品 JDBC 批量写入
+ * <p>
+ * 绕过 MyBatis 逐条 insert，一批数据只走一次 {@code executeBatch}；
+ * 连接串开启 {@code rewriteBatchedStatements} 后驱动会改写为多值 INSERT。
+ */
+@Component
+@RequiredArgsConstructor
+public class CommodityBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO commodity (id, commodityName, commodityDescription, "
+            + "commodityAvatar, degree, commodityTypeId, adminId, isListed, commodityInventory, price, "
+            + "viewNum, favourNum, isDelete) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入商品（ID 需预先生成）
+     *
+     * @param commodities 商品列表
+     */
+    public void insert(List<Commodity> commodities) {
+        if (commodities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, commodities, commodities.size(), (ps, commodity) -> {
+            ps.setLong(1, commodity.getId());
+            ps.setString(2, commodity.getCommodityName());
+            ps.setString(3, commodity.getCommodityDescription());
+            ps.setString(4, commodity.getCommodityAvatar());
+            ps.setString(5, commodity.getDegree());
+            ps.setObject(6, commodity.getCommodityTypeId());
+            ps.setLong(7, commodity.getAdminId());
+            ps.setInt(8, commodity.getIsListed());
+            ps.setInt(9, commodity.getCommodityInventory());
+            ps.setBigDecimal(10, commodity.getPrice());
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.xyex.service.excel;
+
+import com.alibaba.excel.EasyExcel;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.model.CommodityType;
+import com.xyex.entity.req.CommodityImportRow;
+import com.xyex.entity.res.ImportJobVO;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.service.dictionary.CommodityTypeDictionary;
+import com.xyex.service.event.CommodityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 商品导入任务管理
+ * <p>
+ * 上传文件先落到临时文件，随即返回任务ID；解析与写入在专用的 importExecutor 中流式执行，
+ * 请求线程不等待，堆内存只占用一个批次。任务状态在内存中保留一段时间供轮询。
+ */
+@Slf4j
+@Component
+public class CommodityImportJobManager {
+
+    private final Executor executor;
+    private final CommodityBatchWriter batchWriter;
+    private final IdentifierGenerator identifierGenerator;
+    private final CommodityTypeDictionary commodityTypeDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(200)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    public CommodityImportJobManager(@Qualifier("importExecutor") Executor executor,
+                                     CommodityBatchWriter batchWriter,
+                                     IdentifierGenerator identifierGenerator,
+                                     CommodityTypeDictionary commodityTypeDictionary,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${commodity.import.batch-size:1000}") int batchSize) {
+        this.executor = executor;
+        this.batchWriter = batchWriter;
+        this.identifierGenerator = identifierGenerator;
+        this.commodityTypeDictionary = commodityTypeDictionary;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 提交导入任务
+     *
+     * @param file    上传的 Excel 文件
+     * @param adminId 导入人ID（写入商品的 adminId）
+     * @return 任务初始状态
+     */
+    public ImportJobVO submit(MultipartFile file, Long adminId) {
+        // 请求结束后 MultipartFile 的临时文件会被清理，需先转存
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("commodity-import-", ".xlsx");
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            log.error("商品导入文件转存失败: {}", file.getOriginalFilename(), e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "导入文件保存失败");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString().replace("-", ""), file.getOriginalFilename());
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job, tempFile, adminId));
+        } catch (RejectedExecutionException e) {
+            job.fail("导入任务过多，请稍后重试");
+            deleteTempFile(tempFile);
+            log.warn("商品导入任务被拒绝 - 任务: {}, 文件: {}", job.getJobId(), file.getOriginalFilename());
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "导入任务过多，请稍后重试");
+        }
+        log.info("商品导入任务已提交 - 任务: {}, 文件: {}", job.getJobId(), file.getOriginalFilename());
+        return job.toVO();
+    }
+
+    /**
+     * 查询任务状态
+     *
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    public ImportJobVO get(String jobId) {
+        ImportJob job = jobId == null ? null : jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "导入任务不存在或已过期");
+        }
+        return job.toVO();
+    }
+
+    private void run(ImportJob job, Path tempFile, Long adminId) {
+        long start = System.currentTimeMillis();
+        job.start();
+        try {
+            Set<Long> commodityTypeIds = commodityTypeDictionary.all().stream()
+                    .map(CommodityType::getId)
+                    .collect(Collectors.toSet());
+            CommodityImportListener listener = new CommodityImportListener(job, adminId, commodityTypeIds, batchSize,
+                    identifierGenerator, batchWriter,
+                    written -> written.forEach(c -> eventPublisher.publishEvent(CommodityChangedEvent.upsert(c))));
+            EasyExcel.read(tempFile.toFile(), CommodityImportRow.class, listener).sheet().doRead();
+            job.succeed();
+        } catch (Exception e) {
+            log.error("商品导入任务失败 - 任务: {}", job.getJobId(), e);
+            job.fail("导入中断: " + e.getMessage());
+        } finally {
+            deleteTempFile(tempFile);
+        }
+        ImportJobVO result = job.toVO();
+        log.info("商品导入任务结束 - 任务: {}, 成功: {}, 失败: {}, 耗时: {}ms", job.getJobId(),
+                result.getSuccessRows(), result.getFailedRows(), System.currentTimeMillis() - start);
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", tempFile, e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.xyex.service.excel;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.exception.ExcelDataConvertException;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.req.CommodityImportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 商品导入流式监听器
+ * <p>
+ * EasyExcel 逐行回调，每行即时校验，通过的行攒满一批后交给 {@link CommodityBatchWriter} 写入，
+ * 内存中最多只保留一批数据。单个实例只服务一个导入任务，不可复用。
+ */
+@Slf4j
+public class CommodityImportListener implements ReadListener<CommodityImportRow> {
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final ImportJob job;
+    private final Long adminId;
+    private final Set<Long> commodityTypeIds;
+    private final int batchSize;
+    private final IdentifierGenerator identifierGenerator;
+    private final CommodityBatchWriter batchWriter;
+    private final Consumer<List<Commodity>> afterBatchWritten;
+
+    private final List<Commodity> batch;
+    private final List<Integer> batchRows;
+    private boolean totalRowsReported = false;
+
+    public CommodityImportListener(ImportJob job, Long adminId, Set<Long> commodityTypeIds, int batchSize,
+                                   IdentifierGenerator identifierGenerator, CommodityBatchWriter batchWriter,
+                                   Consumer<List<Commodity>> afterBatchWritten) {
+        this.job = job;
+        this.adminId = adminId;
+        this.commodityTypeIds = commodityTypeIds;
+        this.batchSize = batchSize;
+        this.identifierGenerator = identifierGenerator;
+        this.batchWriter = batchWriter;
+        this.afterBatchWritten = afterBatchWritten;
+        this.batch = new ArrayList<>(batchSize);
+        this.batchRows = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void invoke(CommodityImportRow row, AnalysisContext context) {
+        if (!totalRowsReported) {
+            job.setTotalRows(context.readSheetHolder().getApproximateTotalRowNumber());
+            totalRowsReported = true;
+        }
+        int rowNumber = context.readRowHolder().getRowIndex() + 1;
+        job.rowProcessed();
+
+        String error = validate(row);
+        if (error != null) {
+            job.rowFailed(rowNumber, error);
+            return;
+        }
+        batch.add(toCommodity(row));
+        batchRows.add(rowNumber);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 单元格类型转换失败只影响当前行，其余异常终止读取
+     */
+    @Override
+    public void onException(Exception exception, AnalysisContext context) throws Exception {
+        if (exception instanceof ExcelDataConvertException convertException) {
+            job.rowProcessed();
+            job.rowFailed(convertException.getRowIndex() + 1,
+                    "第" + (convertException.getColumnIndex() + 1) + "列格式错误");
+            return;
+        }
+        throw exception;
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        flush();
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchWriter.insert(batch);
+            job.rowsSucceeded(batch.size());
+            afterBatchWritten.accept(List.copyOf(batch));
+        } catch (DataAccessException e) {
+            String reason = "写入失败: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("商品导入批次写入失败 - 任务: {}, 行数: {}", job.getJobId(), batch.size(), e);
+            batchRows.forEach(row -> job.rowFailed(row, reason));
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    /**
+     * 行级校验，与建表约束和 createCommodity 的规则保持一致
+     *
+     * @return 错误原因，校验通过时返回 null
+     */
+    private String validate(CommodityImportRow row) {
+        if (row.getCommodityName() == null || row.getCommodityName().isBlank()) {
+            return "商品名称不能为空";
+        }
+        if (row.getCommodityName().length() > 255) {
+            return "商品名称不能超过255个字符";
+        }
+        if (row.getCommodityDescription() != null && row.getCommodityDescription().length() > 2048) {
+            return "商品简介不能超过2048个字符";
+        }
+        if (row.getCommodityAvatar() != null && row.getCommodityAvatar().length() > 1024) {
+            return "商品封面图地址不能超过1024个字符";
+        }
+        if (row.getDegree() != null && row.getDegree().length() > 255) {
+            return "新旧程度不能超过255个字符";
+        }
+        if (row.getPrice() == null || row.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            return "商品价格必须大于0";
+        }
+        if (row.getPrice().compareTo(MAX_PRICE) > 0) {
+            return "商品价格超出范围";
+        }
+        if (row.getCommodityInventory() != null && row.getCommodityInventory() < 0) {
+            return "库存不能为负数";
+        }
+        if (row.getIsListed() != null && row.getIsListed() != 0 && row.getIsListed() != 1) {
+            return "上架状态只能为0或1";
+        }
+        if (row.getCommodityTypeId() != null && !commodityTypeIds.contains(row.getCommodityTypeId())) {
+            return "商品分类不存在";
+        }
+        return null;
+    }
+
+    private Commodity toCommodity(CommodityImportRow row) {
+        Commodity commodity = new Commodity();
+        commodity.setId(identifierGenerator.nextId(commodity).longValue());
+        commodity.setCommodityName(row.getCommodityName().trim());
+        commodity.setCommodityDescription(row.getCommodityDescription());
+        commodity.setCommodityAvatar(row.getCommodityAvatar());
+        commodity.setDegree(row.getDegree());
+        commodity.setCommodityTypeId(row.getCommodityTypeId());
+        commodity.setAdminId(adminId);
+        commodity.setIsListed(row.getIsListed() != null ? row.getIsListed() : 0);
+        commodity.setCommodityInventory(row.getCommodityInventory() != null ? row.getCommodityInventory() : 0);
+        commodity.setPrice(row.getPrice());
+        commodity.setViewNum(0);
+        commodity.setFavourNum(0);
+        commodity.setIsDelete(0);
+        return commodity;
+    }
+}
@@ -0,0 +1,97 @@
+package com.xyex.service.excel;
+
+import com.xyex.entity.res.ImportJobVO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入任务运行状态
+ * <p>
+ * 由导入线程写入、状态查询线程读取，方法均为同步方法。
+ */
+public class ImportJob {
+
+    /**
+     * 最多保留的行级错误条数
+     */
+    private static final int MAX_ERRORS = 500;
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, FAILED }
+
+    private final String jobId;
+    private final String fileName;
+    private Status status = Status.PENDING;
+    private Integer totalRows;
+    private int processedRows;
+    private int successRows;
+    private int failedRows;
+    private final List<ImportJobVO.RowError> errors = new ArrayList<>();
+    private String message;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    public ImportJob(String jobId, String fileName) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public synchronized void start() {
+        status = Status.RUNNING;
+        startTime = LocalDateTime.now();
+    }
+
+    public synchronized void setTotalRows(Integer totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    /**
+     * 记录一行已读取（校验通过与否都计入）
+     */
+    public synchronized void rowProcessed() {
+        processedRows++;
+    }
+
+    public synchronized void rowsSucceeded(int count) {
+        successRows += count;
+    }
+
+    public synchronized void rowFailed(int row, String error) {
+        failedRows++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportJobVO.RowError(row, error));
+        }
+    }
+
+    public synchronized void succeed() {
+        status = Status.SUCCEEDED;
+        endTime = LocalDateTime.now();
+    }
+
+    public synchronized void fail(String message) {
+        status = Status.FAILED;
+        this.message = message;
+        endTime = LocalDateTime.now();
+    }
+
+    public synchronized ImportJobVO toVO() {
+        ImportJobVO vo = new ImportJobVO();
+        vo.setJobId(jobId);
+        vo.setFileName(fileName);
+        vo.setStatus(status.name());
+        vo.setTotalRows(totalRows);
+        vo.setProcessedRows(processedRows);
+        vo.setSuccessRows(successRows);
+        vo.setFailedRows(failedRows);
+        vo.setErrors(List.copyOf(errors));
+        vo.setMessage(message);
+        vo.setStartTime(startTime);
+        vo.setEndTime(endTime);
+        return vo;
+    }
+}
@@ -0,0 +1,335 @@
+package com.xyex.service.facet;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.req.CommodityQueryDTO;
+import com.xyex.entity.res.CommodityFacetVO;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import com.xyex.service.search.CommodityKeywordIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 商品分面位图索引
+ * <p>
+ * 商品ID（雪花ID）映射为连续的 int 序号，按分类、价格区间、上架状态分别维护 RoaringBitmap。
+ * 分面统计只做位图交集与基数计算，不访问数据库。启动时全量构建，之后由 {@link CommodityChangedEvent} 增量维护。
+ * <p>
+ * RoaringBitmap 非线程安全，写操作持写锁、查询持读锁。
+ */
+@Slf4j
+@Component
+public class CommodityFacetIndex {
+
+    private final CommodityMapper commodityMapper;
+    private final CommodityKeywordIndex commodityKeywordIndex;
+
+    /**
+     * 价格区间边界（升序），区间为 [b(i-1), b(i))，首档从 0 开始，末档无上限
+     */
+    private final BigDecimal[] priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 商品ID -> 序号；序号不回收，删除的商品只从位图中移除
+     */
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    /**
+     * 序号 -> 商品分面数据，已删除为 null
+     */
+    private final List<FacetDoc> docs = new ArrayList<>();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byType = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket;
+    private final Map<Integer, RoaringBitmap> byListed = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    private record FacetDoc(Long commodityTypeId, BigDecimal price, int priceBucket, Integer isListed) {
+    }
+
+    public CommodityFacetIndex(CommodityMapper commodityMapper, CommodityKeywordIndex commodityKeywordIndex,
+                               @Value("${commodity.facet.price-bounds:50,100,200,500,1000}") BigDecimal[] priceBounds) {
+        this.commodityMapper = commodityMapper;
+        this.commodityKeywordIndex = commodityKeywordIndex;
+        this.priceBounds = priceBounds;
+        this.byPriceBucket = new RoaringBitmap[priceBounds.length + 1];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * 应用启动后全量构建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            LambdaQueryWrapper<Commodity> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Commodity::getId, Commodity::getCommodityTypeId, Commodity::getPrice, Commodity::getIsListed)
+                    .eq(Commodity::getIsDelete, 0);
+            List<Commodity> commodities = commodityMapper.selectList(wrapper);
+            lock.writeLock().lock();
+            try {
+                commodities.forEach(this::put);
+                all.runOptimize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("商品分面索引构建完成 - 商品数: {}, 耗时: {}ms", commodities.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("商品分面索引构建失败", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() == CommodityChangedEvent.Type.COUNTER) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer isDelete = event.snapshot() == null ? null : event.snapshot().getIsDelete();
+            if (event.type() == CommodityChangedEvent.Type.DELETE || (isDelete != null && isDelete == 1)) {
+                remove(event.commodityId());
+            } else {
+                put(event.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按查询条件统计各维度分面
+     *
+     * @param queryDTO 查询条件（keyword、id、commodityTypeId、minPrice/maxPrice、isListed）
+     * @return 分面统计
+     */
+    public CommodityFacetVO facets(CommodityQueryDTO queryDTO) {
+        if (!ready) {
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "分面索引尚未就绪");
+        }
+        String keyword = queryDTO.getKeyword();
+        boolean hasKeyword = keyword != null && !keyword.isEmpty();
+        if (hasKeyword && !commodityKeywordIndex.isReady()) {
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "关键词索引尚未就绪");
+        }
+        // 关键词检索在锁外完成
+        Set<Long> keywordHits = hasKeyword ? commodityKeywordIndex.searchIds(keyword) : null;
+
+        lock.readLock().lock();
+        try {
+            // 与维度无关的公共条件：关键词、ID
+            RoaringBitmap base = all.clone();
+            if (keywordHits != null) {
+                base.and(toBitmap(keywordHits));
+            }
+            if (queryDTO.getId() != null) {
+                Integer ordinal = ordinals.get(queryDTO.getId());
+                base.and(ordinal == null ? new RoaringBitmap() : RoaringBitmap.bitmapOf(ordinal));
+            }
+
+            RoaringBitmap typeFilter = queryDTO.getCommodityTypeId() == null ? null
+                    : byType.getOrDefault(queryDTO.getCommodityTypeId(), new RoaringBitmap());
+            RoaringBitmap priceFilter = priceFilter(queryDTO.getMinPrice(), queryDTO.getMaxPrice());
+            RoaringBitmap listedFilter = queryDTO.getIsListed() == null ? null
+                    : byListed.getOrDefault(queryDTO.getIsListed(), new RoaringBitmap());
+
+            CommodityFacetVO vo = new CommodityFacetVO();
+            vo.setTotal(and(base, typeFilter, priceFilter, listedFilter).getLongCardinality());
+
+            // 每个维度应用其余维度的条件
+            RoaringBitmap typeBase = and(base, priceFilter, listedFilter);
+            List<CommodityFacetVO.FacetCount> types = new ArrayList<>();
+            new TreeMap<>(byType).forEach((typeId, bitmap) -> addCount(types, String.valueOf(typeId), typeBase, bitmap, false));
+            vo.setTypes(types);
+
+            RoaringBitmap priceBase = and(base, typeFilter, listedFilter);
+            List<CommodityFacetVO.FacetCount> prices = new ArrayList<>();
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                addCount(prices, bucketLabel(i), priceBase, byPriceBucket[i], true);
+            }
+            vo.setPriceRanges(prices);
+
+            RoaringBitmap listedBase = and(base, typeFilter, priceFilter);
+            List<CommodityFacetVO.FacetCount> listed = new ArrayList<>();
+            new TreeMap<>(byListed).forEach((state, bitmap) -> addCount(listed, String.valueOf(state), listedBase, bitmap, false));
+            vo.setListed(listed);
+            return vo;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void put(Commodity commodity) {
+        if (commodity == null || commodity.getId() == null) {
+            return;
+        }
+        int ordinal = ordinals.computeIfAbsent(commodity.getId(), id -> {
+            docs.add(null);
+            return docs.size() - 1;
+        });
+        unlink(ordinal);
+        FacetDoc doc = new FacetDoc(commodity.getCommodityTypeId(), commodity.getPrice(),
+                bucketOf(commodity.getPrice()), commodity.getIsListed());
+        docs.set(ordinal, doc);
+        all.add(ordinal);
+        if (doc.commodityTypeId() != null) {
+            byType.computeIfAbsent(doc.commodityTypeId(), k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (doc.priceBucket() >= 0) {
+            byPriceBucket[doc.priceBucket()].add(ordinal);
+        }
+        if (doc.isListed() != null) {
+            byListed.computeIfAbsent(doc.isListed(), k -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private void remove(Long commodityId) {
+        Integer ordinal = ordinals.get(commodityId);
+        if (ordinal != null) {
+            unlink(ordinal);
+            docs.set(ordinal, null);
+        }
+    }
+
+    /**
+     * 把序号从旧的各维度位图中移除
+     */
+    private void unlink(int ordinal) {
+        FacetDoc old = docs.get(ordinal);
+        all.remove(ordinal);
+        if (old == null) {
+            return;
+        }
+        if (old.commodityTypeId() != null) {
+            removeFrom(byType, old.commodityTypeId(), ordinal);
+        }
+        if (old.priceBucket() >= 0) {
+            byPriceBucket[old.priceBucket()].remove(ordinal);
+        }
+        if (old.isListed() != null) {
+            removeFrom(byListed, old.isListed(), ordinal);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int ordinal) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 价格范围条件 [min, max]：完全落在范围内的区间直接合并，跨边界的区间逐个校验价格
+     *
+     * @return 位图，无价格条件时返回 null
+     */
+    private RoaringBitmap priceFilter(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            BigDecimal lower = i == 0 ? BigDecimal.ZERO : priceBounds[i - 1];
+            BigDecimal upper = i < priceBounds.length ? priceBounds[i] : null;
+            boolean disjoint = (min != null && upper != null && upper.compareTo(min) <= 0)
+                    || (max != null && lower.compareTo(max) > 0);
+            if (disjoint) {
+                continue;
+            }
+            boolean covered = (min == null || lower.compareTo(min) >= 0)
+                    && (max == null || (upper != null && upper.compareTo(max) <= 0));
+            if (covered) {
+                result.or(byPriceBucket[i]);
+                continue;
+            }
+            byPriceBucket[i].forEach((int ordinal) -> {
+                BigDecimal price = docs.get(ordinal).price();
+                if ((min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0)) {
+                    result.add(ordinal);
+                }
+            });
+        }
+        return result;
+    }
+
+    private RoaringBitmap toBitmap(Set<Long> commodityIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : commodityIds) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * 与非空的条件位图求交集
+     */
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base;
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result = RoaringBitmap.and(result, filter);
+            }
+        }
+        return result;
+    }
+
+    private static void addCount(List<CommodityFacetVO.FacetCount> counts, String value,
+                                 RoaringBitmap base, RoaringBitmap bitmap, boolean keepZero) {
+        long count = RoaringBitmap.andCardinality(base, bitmap);
+        if (count > 0 || keepZero) {
+            counts.add(new CommodityFacetVO.FacetCount(value, count));
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        if (price == null || price.signum() < 0) {
+            return -1;
+        }
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private String bucketLabel(int bucket) {
+        String lower = bucket == 0 ? "0" : priceBounds[bucket - 1].toPlainString();
+        return bucket < priceBounds.length ? lower + "-" + priceBounds[bucket].toPlainString() : lower + "+";
+    }
+}
@@ -0,0 +1,97 @@
+package com.xyex.service.flashsale;
+
+import com.xyex.entity.res.FlashSaleVO;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个商品的秒杀状态
+ * <p>
+ * remaining 是开启时预热的库存名额，排队前先扣名额，名额用完后的请求不再进入队列；
+ * 真正的库存扣减在异步下单时进行，名额只用于快速拒绝。
+ */
+final class FlashSale {
+
+    private final Long commodityId;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final TokenBucket admission;
+    private final AtomicLong remaining;
+    private final AtomicLong issued = new AtomicLong();
+    private final LocalDateTime startTime = LocalDateTime.now();
+
+    /**
+     * 用户ID -> 凭证ID，每个用户同一场秒杀只排队一次
+     */
+    private final Map<Long, String> ticketsByUser = new ConcurrentHashMap<>();
+
+    FlashSale(Long commodityId, long stock, double permitsPerSecond, int burst) {
+        this.commodityId = commodityId;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.admission = new TokenBucket(permitsPerSecond, burst);
+        this.remaining = new AtomicLong(stock);
+    }
+
+    boolean tryAdmit() {
+        return admission.tryAcquire();
+    }
+
+    /**
+     * 扣一个排队名额
+     */
+    boolean tryReserve() {
+        while (true) {
+            long current = remaining.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - 1)) {
+                issued.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还排队名额
+     */
+    void release() {
+        remaining.incrementAndGet();
+        issued.decrementAndGet();
+    }
+
+    /**
+     * 下单失败（非售罄）时归还名额并允许该用户重新排队
+     */
+    void release(Long userId) {
+        release();
+        ticketsByUser.remove(userId);
+    }
+
+    /**
+     * 实际库存已耗尽，后续请求直接拒绝
+     */
+    void soldOut() {
+        remaining.set(0);
+    }
+
+    String ticketOf(Long userId) {
+        return ticketsByUser.get(userId);
+    }
+
+    /**
+     * @return 该用户已有的凭证ID，没有时登记并返回 null
+     */
+    String bind(Long userId, String ticketId) {
+        return ticketsByUser.putIfAbsent(userId, ticketId);
+    }
+
+    FlashSaleVO toVO() {
+        return new FlashSaleVO(commodityId, permitsPerSecond, burst, Math.max(remaining.get(), 0), issued.get(),
+                startTime);
+    }
+}
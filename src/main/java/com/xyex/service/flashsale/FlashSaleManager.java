@@ -0,0 +1,174 @@
+package com.xyex.service.flashsale;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyex.entity.res.FlashSaleTicketVO;
+import com.xyex.entity.res.FlashSaleVO;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 秒杀管理
+ * <p>
+ * 开启秒杀时按当前库存预热排队名额。下单请求依次经过：同一用户去重 -> 令牌桶限流 -> 扣排队名额，
+ * 通过后立即返回排队凭证，实际的库存扣减与订单创建由 flashSaleExecutor 的固定线程异步完成，
+ * 数据库看到的是受线程数约束的平稳写入。被限流或名额用完的请求不抛异常、不排队，直接返回结果。
+ * <p>
+ * 限流与名额均为单节点状态，多节点部署时每个节点按各自的速率放行，库存仍由库存服务兜底。
+ */
+@Slf4j
+@Component
+public class FlashSaleManager {
+
+    private final Executor executor;
+    private final Map<Long, FlashSale> sales = new ConcurrentHashMap<>();
+    private final Cache<String, FlashSaleTicket> tickets;
+
+    public FlashSaleManager(@Qualifier("flashSaleExecutor") Executor executor,
+                            @Value("${commodity.flash-sale.ticket-ttl:3600}") long ticketTtlSeconds) {
+        this.executor = executor;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ticketTtlSeconds))
+                .build();
+    }
+
+    /**
+     * 开启秒杀（已开启时按新参数重新开启）
+     *
+     * @param commodityId      商品ID
+     * @param stock            预热的库存
+     * @param permitsPerSecond 每秒放行数
+     * @param burst            突发容量
+     * @return 秒杀状态
+     */
+    public FlashSaleVO start(Long commodityId, long stock, double permitsPerSecond, int burst) {
+        FlashSale sale = new FlashSale(commodityId, stock, permitsPerSecond, burst);
+        sales.put(commodityId, sale);
+        log.info("秒杀已开启 - 商品ID: {}, 库存: {}, 每秒放行: {}, 突发: {}", commodityId, stock, permitsPerSecond, burst);
+        return sale.toVO();
+    }
+
+    /**
+     * 关闭秒杀，已排队的凭证继续处理
+     *
+     * @param commodityId 商品ID
+     */
+    public void stop(Long commodityId) {
+        if (sales.remove(commodityId) != null) {
+            log.info("秒杀已关闭 - 商品ID: {}", commodityId);
+        }
+    }
+
+    public boolean isActive(Long commodityId) {
+        return commodityId != null && sales.containsKey(commodityId);
+    }
+
+    /**
+     * 秒杀状态
+     *
+     * @param commodityId 商品ID
+     * @return 秒杀状态
+     */
+    public FlashSaleVO get(Long commodityId) {
+        return require(commodityId).toVO();
+    }
+
+    /**
+     * 排队下单
+     *
+     * @param commodityId 商品ID
+     * @param userId      用户ID
+     * @param purchase    扣减库存并创建订单，返回订单ID；在秒杀线程中执行
+     * @return 排队凭证，或未排队的原因
+     */
+    public FlashSaleTicketVO enter(Long commodityId, Long userId, Supplier<Long> purchase) {
+        FlashSale sale = require(commodityId);
+        String existing = sale.ticketOf(userId);
+        if (existing != null) {
+            FlashSaleTicket ticket = tickets.getIfPresent(existing);
+            if (ticket != null) {
+                return ticket.toVO();
+            }
+        }
+        if (!sale.tryAdmit()) {
+            return FlashSaleTicket.notQueued(commodityId, FlashSaleTicket.Status.REJECTED, "当前抢购人数过多，请稍后再试");
+        }
+        if (!sale.tryReserve()) {
+            return FlashSaleTicket.notQueued(commodityId, FlashSaleTicket.Status.SOLD_OUT, "已售罄");
+        }
+
+        FlashSaleTicket ticket = new FlashSaleTicket(UUID.randomUUID().toString().replace("-", ""), commodityId, userId);
+        String bound = sale.bind(userId, ticket.getTicketId());
+        if (bound != null) {
+            // 同一用户的并发请求，只保留先登记的凭证
+            sale.release();
+            FlashSaleTicket first = tickets.getIfPresent(bound);
+            return first != null ? first.toVO()
+                    : FlashSaleTicket.notQueued(commodityId, FlashSaleTicket.Status.REJECTED, "请勿重复提交");
+        }
+        tickets.put(ticket.getTicketId(), ticket);
+        try {
+            // 秒杀线程没有登录上下文，随任务传递
+            executor.execute(DelegatingSecurityContextRunnable.create(() -> process(sale, ticket, purchase), null));
+        } catch (RejectedExecutionException e) {
+            sale.release(userId);
+            tickets.invalidate(ticket.getTicketId());
+            return FlashSaleTicket.notQueued(commodityId, FlashSaleTicket.Status.REJECTED, "排队人数已满，请稍后再试");
+        }
+        return ticket.toVO();
+    }
+
+    /**
+     * 查询排队凭证
+     *
+     * @param ticketId 凭证ID
+     * @return 凭证状态
+     */
+    public FlashSaleTicketVO ticket(String ticketId) {
+        FlashSaleTicket ticket = ticketId == null ? null : tickets.getIfPresent(ticketId);
+        if (ticket == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "排队凭证不存在或已过期");
+        }
+        return ticket.toVO();
+    }
+
+    private void process(FlashSale sale, FlashSaleTicket ticket, Supplier<Long> purchase) {
+        try {
+            ticket.succeed(purchase.get());
+        } catch (BusinessException e) {
+            if (ErrorCode.CONFLICT.getCode().equals(e.getCode())) {
+                // 实际库存比预热的名额少（例如秒杀期间有其他渠道售出）
+                sale.soldOut();
+                ticket.soldOut();
+                return;
+            }
+            sale.release(ticket.getUserId());
+            ticket.fail(e.getMessage());
+        } catch (Exception e) {
+            log.error("秒杀下单失败 - 凭证: {}", ticket.getTicketId(), e);
+            sale.release(ticket.getUserId());
+            ticket.fail("下单失败，请重试");
+        }
+    }
+
+    private FlashSale require(Long commodityId) {
+        FlashSale sale = commodityId == null ? null : sales.get(commodityId);
+        if (sale == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "商品未开启秒杀");
+        }
+        return sale;
+    }
+}
@@ -0,0 +1,80 @@
+package com.xyex.service.flashsale;
+
+import com.xyex.entity.res.FlashSaleTicketVO;
+
+import java.time.LocalDateTime;
+
+/**
+ * 秒杀排队凭证
+ * <p>
+ * 由下单线程写入、轮询线程读取，方法均为同步方法。
+ */
+public class FlashSaleTicket {
+
+    public enum Status { QUEUED, SUCCEEDED, SOLD_OUT, FAILED, REJECTED }
+
+    private final String ticketId;
+    private final Long commodityId;
+    private final Long userId;
+    private final LocalDateTime createTime = LocalDateTime.now();
+    private Status status = Status.QUEUED;
+    private Long orderId;
+    private String message;
+    private LocalDateTime finishTime;
+
+    public FlashSaleTicket(String ticketId, Long commodityId, Long userId) {
+        this.ticketId = ticketId;
+        this.commodityId = commodityId;
+        this.userId = userId;
+    }
+
+    /**
+     * 未排队（被限流或已售罄）时直接返回的结果
+     */
+    public static FlashSaleTicketVO notQueued(Long commodityId, Status status, String message) {
+        FlashSaleTicketVO vo = new FlashSaleTicketVO();
+        vo.setCommodityId(commodityId);
+        vo.setStatus(status.name());
+        vo.setMessage(message);
+        return vo;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public synchronized void succeed(Long orderId) {
+        finish(Status.SUCCEEDED, null);
+        this.orderId = orderId;
+    }
+
+    public synchronized void soldOut() {
+        finish(Status.SOLD_OUT, "已售罄");
+    }
+
+    public synchronized void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status status, String message) {
+        this.status = status;
+        this.message = message;
+        this.finishTime = LocalDateTime.now();
+    }
+
+    public synchronized FlashSaleTicketVO toVO() {
+        FlashSaleTicketVO vo = new FlashSaleTicketVO();
+        vo.setTicketId(ticketId);
+        vo.setCommodityId(commodityId);
+        vo.setStatus(status.name());
+        vo.setOrderId(orderId);
+        vo.setMessage(message);
+        vo.setCreateTime(createTime);
+        vo.setFinishTime(finishTime);
+        return vo;
+    }
+}
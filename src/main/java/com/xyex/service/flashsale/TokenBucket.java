@@ -0,0 +1,47 @@
+package com.xyex.service.flashsale;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌桶（GCRA 实现）
+ * <p>
+ * 不保存令牌数，只保存"理论到达时间"：每放行一次向后推一个发放间隔，
+ * 理论到达时间领先当前时间不超过 (burst - 1) 个间隔时放行。
+ * 与按速率补充令牌的令牌桶等价，但状态只有一个 long，CAS 即可无锁更新。
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param permitsPerSecond 每秒放行数
+     * @param burst            允许的突发数（桶容量）
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(burst - 1, 0);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 尝试取一个令牌，不等待
+     *
+     * @return 是否放行
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - now > 0 ? arrival : now;
+            if (base - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,28 +1,86 @@
 package com.xyex.service.impl;
 
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.Commodity;
 import com.xyex.entity.model.CommodityOrder;
 import com.xyex.entity.model.CommodityScore;
 import com.xyex.entity.model.CommodityType;
+import com.xyex.entity.req.CommodityBulkDTO;
 import com.xyex.entity.req.CommodityOrderDTO;
 import com.xyex.entity.req.CommodityQueryDTO;
 import com.xyex.entity.req.CommodityScoreDTO;
 import com.xyex.entity.req.CommodityTypeDTO;
+import com.xyex.entity.req.FlashSaleDTO;
+import com.xyex.entity.res.BulkResultVO;
+import com.xyex.entity.res.CommodityCardVO;
+import com.xyex.entity.res.CommodityFacetVO;
+import com.xyex.entity.res.CommoditySuggestVO;
+import com.xyex.entity.res.CommodityExportRow;
+import com.xyex.entity.res.CommodityOrderExportRow;
+import com.xyex.entity.res.FlashSaleTicketVO;
+import com.xyex.entity.res.FlashSaleVO;
+import com.xyex.entity.res.ImportJobVO;
+import com.xyex.entity.res.SimilarItemVO;
+import com.xyex.entity.res.TrendingItemVO;
+import com.xyex.infrastructure.cache.TwoLevelCache;
 import com.xyex.infrastructure.exception.BusinessException;
 import com.xyex.infrastructure.exception.ErrorCode;
 import com.xyex.infrastructure.model.BasicServiceImpl;
+import com.xyex.infrastructure.model.CursorPage;
+import com.xyex.infrastructure.utils.LoginUserContext;
+import com.xyex.infrastructure.utils.OptimisticRetryTemplate;
 import com.xyex.mapper.CommodityMapper;
 import com.xyex.mapper.CommodityOrderMapper;
 import com.xyex.mapper.CommodityScoreMapper;
 import com.xyex.mapper.CommodityTypeMapper;
 import com.xyex.service.CommodityService;
+import com.xyex.service.cache.CatalogVersions;
+import com.xyex.service.cache.CommodityDetailCache;
+import com.xyex.service.counter.FavourCountBuffer;
+import com.xyex.service.dictionary.CommodityTypeDictionary;
+import com.xyex.service.counter.ViewCountAggregator;
+import com.xyex.service.event.CommodityChangedEvent;
+import com.xyex.service.event.CommodityInteractionEvent;
+import com.xyex.service.event.CommodityTypeChangedEvent;
+import com.xyex.service.excel.CommodityImportJobManager;
+import com.xyex.service.facet.CommodityFacetIndex;
+import com.xyex.service.flashsale.FlashSaleManager;
+import com.xyex.service.inventory.InventoryService;
+import com.xyex.service.order.OrderExpiryService;
+import com.xyex.service.order.OrderIngestionPipeline;
+import com.xyex.service.recommend.SimilarCommodityIndex;
+import com.xyex.service.search.CommodityKeywordIndex;
+import com.xyex.service.search.CommoditySuggester;
+import com.xyex.service.trending.TrendingSignal;
+import com.xyex.service.trending.TrendingTracker;
+import com.xyex.service.trending.TrendingWindow;
+import com.xyex.shared.enums.OrderConstant;
+import com.xyex.shared.utils.EasyExcelUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 商品服务实现
@@ -31,35 +89,181 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Commodity> implements CommodityService {
 
+    /**
+     * 批量操作单条 SQL 包含的最大ID数
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * 秒杀默认每秒放行数
+     */
+    private static final double DEFAULT_FLASH_SALE_PERMITS = 200;
+
     private final CommodityMapper commodityMapper;
     private final CommodityOrderMapper commodityOrderMapper;
     private final CommodityScoreMapper commodityScoreMapper;
     private final CommodityTypeMapper commodityTypeMapper;
+    private final CommodityKeywordIndex commodityKeywordIndex;
+    private final CommoditySuggester commoditySuggester;
+    private final CommodityDetailCache commodityDetailCache;
+    private final ViewCountAggregator viewCountAggregator;
+    private final FavourCountBuffer favourCountBuffer;
+    private final CommodityImportJobManager commodityImportJobManager;
+    private final CommodityFacetIndex commodityFacetIndex;
+    private final InventoryService inventoryService;
+    private final OrderIngestionPipeline orderIngestionPipeline;
+    private final OrderExpiryService orderExpiryService;
+    private final FlashSaleManager flashSaleManager;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final IdentifierGenerator identifierGenerator;
+    private final TrendingTracker trendingTracker;
+    private final SimilarCommodityIndex similarCommodityIndex;
+    private final CommodityTypeDictionary commodityTypeDictionary;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
   
 
     @Override
-    public Page<Commodity> listCommodity(CommodityQueryDTO queryDTO) {
-        return commodityMapper.selectPage(queryDTO.createPage(), queryDTO.createQuery());
+    public Page<CommodityCardVO> listCommodity(CommodityQueryDTO queryDTO) {
+        String keyword = queryDTO.getKeyword();
+        String columns = queryDTO.cardColumns();
+        Page<CommodityCardVO> page = keyword != null && !keyword.isEmpty() && commodityKeywordIndex.isReady()
+                ? listCommodityByIndex(queryDTO, columns)
+                : commodityMapper.selectCardPage(queryDTO.createPage(), columns, queryDTO.createPageQuery());
+        page.getRecords().forEach(card -> {
+            if (card.getCommodityTypeId() != null) {
+                card.setCommodityTypeName(commodityTypeDictionary.nameOf(card.getCommodityTypeId()));
+            }
+        });
+        return page;
+    }
+
+    /**
+     * 关键词查询走内存索引：索引负责匹配、过滤、排序和计数，数据库只按当前页ID回表
+     */
+    private Page<CommodityCardVO> listCommodityByIndex(CommodityQueryDTO queryDTO, String columns) {
+        List<CommodityKeywordIndex.IndexedCommodity> hits = commodityKeywordIndex.search(queryDTO);
+        Page<CommodityCardVO> page = queryDTO.createPage();
+        page.setTotal(hits.size());
+
+        int from;
+        if (queryDTO.getCursor() != null && !queryDTO.getCursor().isEmpty()) {
+            // 游标模式：定位到第一个严格位于游标之后的商品
+            CursorPage.Cursor cursor = CursorPage.decode(queryDTO.getCursor());
+            long cursorTime = cursor.sortValue() instanceof LocalDateTime time
+                    ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE;
+            from = 0;
+            while (from < hits.size()) {
+                CommodityKeywordIndex.IndexedCommodity hit = hits.get(from);
+                if (hit.createTime() < cursorTime || (hit.createTime() == cursorTime && hit.id() < cursor.id())) {
+                    break;
+                }
+                from++;
+            }
+        } else {
+            from = (int) Math.min((page.getCurrent() - 1) * page.getSize(), hits.size());
+        }
+        if (from >= hits.size()) {
+            page.setRecords(Collections.emptyList());
+            return page;
+        }
+        List<Long> pageIds = hits.subList(from, (int) Math.min(from + page.getSize(), hits.size())).stream()
+                .map(CommodityKeywordIndex.IndexedCommodity::id)
+                .toList();
+
+        // 按索引排序结果回填，被并发删除的商品直接跳过
+        LambdaQueryWrapper<Commodity> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(Commodity::getId, pageIds).eq(Commodity::getIsDelete, 0);
+        Map<Long, CommodityCardVO> rows = commodityMapper.selectCards(columns, wrapper).stream()
+                .collect(Collectors.toMap(CommodityCardVO::getId, Function.identity()));
+        List<CommodityCardVO> records = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            CommodityCardVO card = rows.get(id);
+            if (card != null) {
+                records.add(card);
+            }
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    @Override
+    public CommodityFacetVO getFacets(CommodityQueryDTO queryDTO) {
+        return commodityFacetIndex.facets(queryDTO != null ? queryDTO : new CommodityQueryDTO());
     }
 
     @Override
     public Commodity getCommodityDetail(Long id) {
+        Commodity commodity = loadCommodity(id);
+
+        // 增加浏览量
+        incrementViewNum(id);
+        trendingTracker.record(id, TrendingSignal.VIEW, 1);
+
+        return mergeDetail(commodity);
+    }
+
+    @Override
+    public String getCommodityListETag() {
+        return catalogVersions.tag("c", catalogVersions.commodities(), commodityTypeDictionary.version());
+    }
+
+    @Override
+    public String getCommodityDetailETag(Long id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        Commodity commodity = commodityDetailCache.get(id, commodityMapper::selectById);
+        if (commodity == null || commodity.getIsDelete() == 1) {
+            return null;
+        }
+        return getCommodityDetailETag(mergeDetail(commodity));
+    }
+
+    @Override
+    public String getCommodityDetailETag(Commodity detail) {
+        long updateTime = detail.getUpdateTime() == null ? 0
+                : detail.getUpdateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // updateTime 只有秒级精度，再附加可编辑字段的指纹区分同一秒内的多次修改
+        int fingerprint = Objects.hash(detail.getCommodityName(), detail.getCommodityDescription(),
+                detail.getCommodityAvatar(), detail.getDegree(), detail.getCommodityTypeId(),
+                detail.getCommodityTypeName(), detail.getAdminId(), detail.getIsListed(),
+                detail.getCommodityInventory(), detail.getPrice());
+        return catalogVersions.tag("d", detail.getId(), updateTime, Integer.toHexString(fingerprint),
+                detail.getViewNum(), detail.getFavourNum());
+    }
+
+    /**
+     * 读取商品（走详情缓存），不存在时抛出异常
+     */
+    private Commodity loadCommodity(Long id) {
         if (id == null || id <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
 
-        Commodity commodity = commodityMapper.selectById(id);
+        Commodity commodity = commodityDetailCache.get(id, commodityMapper::selectById);
         if (commodity == null || commodity.getIsDelete() == 1) {
             throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
         }
-
-        // 增加浏览量
-        incrementViewNum(id);
-
         return commodity;
     }
 
+    /**
+     * 缓存对象为共享实例，复制后合并尚未落库的浏览量与收藏量
+     */
+    private Commodity mergeDetail(Commodity commodity) {
+        Long id = commodity.getId();
+        Commodity detail = BeanUtil.copyProperties(commodity, Commodity.class);
+        int viewNum = commodity.getViewNum() == null ? 0 : commodity.getViewNum();
+        detail.setViewNum((int) (viewNum + viewCountAggregator.pending(id)));
+        int favourNum = commodity.getFavourNum() == null ? 0 : commodity.getFavourNum();
+        detail.setFavourNum((int) Math.max(favourNum + favourCountBuffer.pending(id), 0));
+        detail.setCommodityTypeName(commodityTypeDictionary.nameOf(detail.getCommodityTypeId()));
+        return detail;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void createCommodity(Commodity commodity) {
@@ -76,23 +280,47 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
         commodity.setFavourNum(0);
         commodity.setIsListed(0);
         commodity.setCommodityInventory(commodity.getCommodityInventory() != null ? commodity.getCommodityInventory() : 0);
+        commodity.setVersion(0);
 
         commodityMapper.insert(commodity);
+        eventPublisher.publishEvent(CommodityChangedEvent.upsert(commodity));
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void updateCommodity(Commodity commodity) {
         if (commodity == null || commodity.getId() == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
 
-        Commodity existing = commodityMapper.selectById(commodity.getId());
-        if (existing == null || existing.getIsDelete() == 1) {
-            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
-        }
+        // 传入版本号时以其为准；未传入时以读取到的版本为准，冲突后重新读取重试
+        Integer expectedVersion = commodity.getVersion();
+        // 库存不覆盖写：数据库中的库存可能还未扣除已售出的待同步增量，按与读取值的差额调整
+        Integer targetInventory = commodity.getCommodityInventory();
+        commodity.setCommodityInventory(null);
+        optimisticRetryTemplate.execute("commodity.update", () -> {
+            Commodity existing = commodityMapper.selectById(commodity.getId());
+            if (existing == null || existing.getIsDelete() == 1) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+            }
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new BusinessException(ErrorCode.CONFLICT, "商品已被修改，请刷新后重试");
+            }
+
+            commodity.setVersion(existing.getVersion());
+            if (commodityMapper.updateById(commodity) == 0) {
+                return false;
+            }
+            if (targetInventory != null) {
+                int currentInventory = existing.getCommodityInventory() == null ? 0 : existing.getCommodityInventory();
+                inventoryService.adjust(existing.getId(), (long) targetInventory - currentInventory);
+                existing.setCommodityInventory(targetInventory);
+            }
 
-        commodityMapper.updateById(commodity);
+            // updateById 只更新非空字段，合并出更新后的完整快照（版本号已由乐观锁插件回填为新值）
+            BeanUtil.copyProperties(commodity, existing, CopyOptions.create().ignoreNullValue());
+            eventPublisher.publishEvent(CommodityChangedEvent.upsert(existing));
+            return true;
+        });
     }
 
     @Override
@@ -102,60 +330,197 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
 
-        for (Long id : ids) {
-            Commodity commodity = commodityMapper.selectById(id);
-        if (commodity == null || commodity.getIsDelete() == 1) {
-            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+        // 任一商品不存在则整体失败
+        for (List<Long> chunk : ListUtil.partition(ids.stream().distinct().toList(), BULK_CHUNK_SIZE)) {
+            Map<Long, Commodity> found = selectCommodityMap(chunk, false);
+            List<Long> alive = chunk.stream().filter(id -> isAlive(found.get(id))).toList();
+            if (alive.size() < chunk.size()) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+            }
+            softDeleteCommodities(alive);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BulkResultVO bulkDeleteCommodity(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
 
-        // 软删除
-        Commodity updateCommodity = new Commodity();
-        updateCommodity.setId(id);
-        updateCommodity.setIsDelete(1);
-        commodityMapper.updateById(updateCommodity);
+        BulkResultVO result = new BulkResultVO();
+        for (List<Long> chunk : ListUtil.partition(ids.stream().distinct().toList(), BULK_CHUNK_SIZE)) {
+            Map<Long, Commodity> found = selectCommodityMap(chunk, false);
+            List<Long> alive = chunk.stream().filter(id -> isAlive(found.get(id))).toList();
+            softDeleteCommodities(alive);
+            chunk.forEach(id -> recordOutcome(result, id, found.get(id)));
         }
+        return result;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void incrementViewNum(Long id) {
-        if (id == null || id <= 0) {
+    public BulkResultVO bulkUpdateCommodity(CommodityBulkDTO bulkDTO) {
+        if (bulkDTO == null || bulkDTO.getIds() == null || bulkDTO.getIds().isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
+        }
+        if (bulkDTO.getIsListed() == null && bulkDTO.getPrice() == null && bulkDTO.getCommodityTypeId() == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "更新内容不能为空");
+        }
+        if (bulkDTO.getIsListed() != null && bulkDTO.getIsListed() != 0 && bulkDTO.getIsListed() != 1) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "上下架状态无效");
+        }
+        if (bulkDTO.getPrice() != null && bulkDTO.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品价格必须大于0");
+        }
+        if (bulkDTO.getCommodityTypeId() != null && !commodityTypeDictionary.contains(bulkDTO.getCommodityTypeId())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品分类不存在");
+        }
+
+        Commodity patch = new Commodity();
+        patch.setIsListed(bulkDTO.getIsListed());
+        patch.setPrice(bulkDTO.getPrice());
+        patch.setCommodityTypeId(bulkDTO.getCommodityTypeId());
+
+        BulkResultVO result = new BulkResultVO();
+        for (List<Long> chunk : ListUtil.partition(bulkDTO.getIds().stream().distinct().toList(), BULK_CHUNK_SIZE)) {
+            // 读取完整行，更新后合并出快照供索引与缓存使用
+            Map<Long, Commodity> found = selectCommodityMap(chunk, true);
+            List<Commodity> alive = chunk.stream().map(found::get).filter(this::isAlive).toList();
+            if (!alive.isEmpty()) {
+                LambdaUpdateWrapper<Commodity> wrapper = new LambdaUpdateWrapper<>();
+                // 批量修改不比较版本号，但递增版本，使持有旧版本的单条修改被拒绝
+                wrapper.in(Commodity::getId, alive.stream().map(Commodity::getId).toList())
+                        .eq(Commodity::getIsDelete, 0)
+                        .setSql("version = version + 1");
+                commodityMapper.update(patch, wrapper);
+                for (Commodity commodity : alive) {
+                    BeanUtil.copyProperties(patch, commodity, CopyOptions.create().ignoreNullValue());
+                    commodity.setVersion(commodity.getVersion() == null ? null : commodity.getVersion() + 1);
+                    eventPublisher.publishEvent(CommodityChangedEvent.upsert(commodity));
+                }
+            }
+            chunk.forEach(id -> recordOutcome(result, id, found.get(id)));
+        }
+        return result;
+    }
+
+    @Override
+    public ImportJobVO importCommodity(MultipartFile file) {
+        if (!EasyExcelUtils.isExcelFile(file)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "请上传 Excel 文件");
+        }
+        Long adminId = LoginUserContext.get();
+        if (adminId == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "未登录");
+        }
+        return commodityImportJobManager.submit(file, adminId);
+    }
+
+    @Override
+    public ImportJobVO getImportJob(String jobId) {
+        return commodityImportJobManager.get(jobId);
+    }
+
+    @Override
+    public void exportCommodity(CommodityQueryDTO queryDTO, HttpServletResponse response) {
+        CommodityQueryDTO query = queryDTO != null ? queryDTO : new CommodityQueryDTO();
+        EasyExcelUtils.exportExcelStreaming(response, CommodityExportRow.class, "商品列表",
+                sink -> commodityMapper.streamList(query.createQuery(),
+                        context -> sink.accept(CommodityExportRow.of(context.getResultObject()))));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void exportOrder(CommodityOrderDTO queryDTO, HttpServletResponse response) {
+        CommodityOrderDTO query = queryDTO != null ? queryDTO : new CommodityOrderDTO();
+        EasyExcelUtils.exportExcelStreaming(response, CommodityOrderExportRow.class, "商品订单",
+                sink -> commodityOrderMapper.streamList((Wrapper<CommodityOrder>) query.createQuery(),
+                        context -> sink.accept(CommodityOrderExportRow.of(context.getResultObject()))));
+    }
+
+    /**
+     * 一条 SELECT ... WHERE id IN 读取一批商品
+     *
+     * @param ids     商品ID（不超过 {@link #BULK_CHUNK_SIZE} 个）
+     * @param fullRow 是否读取完整行，否则只读取 id 与 isDelete
+     * @return 商品ID -> 商品
+     */
+    private Map<Long, Commodity> selectCommodityMap(List<Long> ids, boolean fullRow) {
+        LambdaQueryWrapper<Commodity> wrapper = new LambdaQueryWrapper<>();
+        if (!fullRow) {
+            wrapper.select(Commodity::getId, Commodity::getIsDelete);
+        }
+        wrapper.in(Commodity::getId, ids);
+        return commodityMapper.selectList(wrapper).stream()
+                .collect(Collectors.toMap(Commodity::getId, Function.identity()));
+    }
+
+    /**
+     * 一条 UPDATE ... WHERE id IN 软删除一批商品
+     */
+    private void softDeleteCommodities(List<Long> ids) {
+        if (ids.isEmpty()) {
             return;
         }
+        LambdaUpdateWrapper<Commodity> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.set(Commodity::getIsDelete, 1)
+                .in(Commodity::getId, ids)
+                .eq(Commodity::getIsDelete, 0);
+        commodityMapper.update(null, wrapper);
+        ids.forEach(id -> eventPublisher.publishEvent(CommodityChangedEvent.delete(id)));
+    }
+
+    private boolean isAlive(Commodity commodity) {
+        return commodity != null && (commodity.getIsDelete() == null || commodity.getIsDelete() == 0);
+    }
 
-        Commodity commodity = new Commodity();
-        commodity.setId(id);
-        commodity.setViewNum(commodityMapper.selectById(id).getViewNum() + 1);
-        commodityMapper.updateById(commodity);
+    private void recordOutcome(BulkResultVO result, Long id, Commodity commodity) {
+        if (commodity == null) {
+            result.fail(id, "商品不存在");
+        } else if (!isAlive(commodity)) {
+            result.fail(id, "商品已删除");
+        } else {
+            result.succeed(id);
+        }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void incrementFavourNum(Long id) {
+    public void incrementViewNum(Long id) {
         if (id == null || id <= 0) {
             return;
         }
 
-        Commodity commodity = new Commodity();
-        commodity.setId(id);
-        commodity.setFavourNum(commodityMapper.selectById(id).getFavourNum() + 1);
-        commodityMapper.updateById(commodity);
+        // 写后聚合，由定时任务批量落库
+        viewCountAggregator.increment(id);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void incrementFavourNum(Long id) {
+        adjustFavourNum(id, 1);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void decrementFavourNum(Long id) {
+        adjustFavourNum(id, -1);
+    }
+
+    /**
+     * 调整收藏量：开启合并缓冲时提交后入缓冲，否则直接执行数据库侧原子增减
+     */
+    private void adjustFavourNum(Long id, long delta) {
         if (id == null || id <= 0) {
             return;
         }
-
-        Commodity existing = commodityMapper.selectById(id);
-        if (existing != null && existing.getFavourNum() > 0) {
-            Commodity commodity = new Commodity();
-            commodity.setId(id);
-            commodity.setFavourNum(existing.getFavourNum() - 1);
-            commodityMapper.updateById(commodity);
+        trendingTracker.record(id, TrendingSignal.FAVOURITE, delta);
+        if (favourCountBuffer.isEnabled()) {
+            favourCountBuffer.add(id, delta);
+            return;
         }
+        commodityMapper.addFavourNum(id, delta);
+        eventPublisher.publishEvent(CommodityChangedEvent.counter(id));
     }
     
     @Override
@@ -164,44 +529,175 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
         if (commodity == null || commodity.getId() == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
+        rejectIfFlashSale(commodity.getId());
 
-        Commodity existing = commodityMapper.selectById(commodity.getId());
-        if (existing == null || existing.getIsDelete() == 1) {
-            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
-        }
-
-        // 购买商品
-        Commodity updateCommodity = new Commodity();
-        updateCommodity.setId(commodity.getId());
-        updateCommodity.setIsListed(1);
-        updateCommodity.setCommodityInventory(existing.getCommodityInventory() - 1);
-        commodityMapper.updateById(updateCommodity);
+        // 原子扣减库存，库存不足时拒绝
+        inventoryService.deduct(commodity.getId(), 1);
     }
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void addOrder(CommodityOrderDTO commodityOrderDTO) {
         if (commodityOrderDTO == null || commodityOrderDTO.getCommodityId() == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
         }
 
-        Commodity existing = commodityMapper.selectById(commodityOrderDTO.getCommodityId());
-        if (existing == null || existing.getIsDelete() == 1) {
-            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+        if (commodityOrderDTO.getBuyNumber() == null) {
+            commodityOrderDTO.setBuyNumber(1);
+        } else if (commodityOrderDTO.getBuyNumber() <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "购买数量必须大于0");
+        }
+
+        rejectIfFlashSale(commodityOrderDTO.getCommodityId());
+        loadCommodity(commodityOrderDTO.getCommodityId());
+        placeOrder(commodityOrderDTO);
+    }
+
+    /**
+     * 创建订单：先预占库存，订单由写线程与其他请求的订单合并为一批提交
+     * <p>
+     * 写入确定失败（5xx）时退回预占的库存；结果未知时保留，订单若已写入由超时取消回补。
+     */
+    private CommodityOrder placeOrder(CommodityOrderDTO commodityOrderDTO) {
+        CommodityOrder order = newOrder(commodityOrderDTO);
+        long reserved = order.getReservedNumber();
+        inventoryService.deduct(order.getCommodityId(), reserved);
+        try {
+            orderIngestionPipeline.submit(order);
+        } catch (BusinessException e) {
+            if (e.getCode() >= 500) {
+                inventoryService.restock(Map.of(order.getCommodityId(), reserved));
+            }
+            throw e;
         }
+        onOrderPlaced(order);
+        return order;
+    }
+
+    private CommodityOrder newOrder(CommodityOrderDTO commodityOrderDTO) {
         CommodityOrder order = new CommodityOrder();
+        order.setId(identifierGenerator.nextId(order).longValue());
         order.setCommodityId(commodityOrderDTO.getCommodityId());
         order.setUserId(commodityOrderDTO.getUserId());
-        order.setPayStatus(0);
+        order.setPayStatus(OrderConstant.PAY_STATUS_UNPAID);
         order.setPaymentAmount(commodityOrderDTO.getPaymentAmount());
         order.setBuyNumber(commodityOrderDTO.getBuyNumber());
+        // 下单时按购买数量预占库存，超时取消时回补
+        order.setReservedNumber(commodityOrderDTO.getBuyNumber());
         order.setCreateTime(LocalDateTime.now());
         order.setUpdateTime(LocalDateTime.now());
         order.setIsDelete(0);
-        commodityOrderMapper.insert(order);
+        return order;
     }
+
+    /**
+     * 订单已写入：调度超时取消，记录交互与热度
+     */
+    private void onOrderPlaced(CommodityOrder order) {
+        orderExpiryService.schedule(order);
+        eventPublisher.publishEvent(new CommodityInteractionEvent(order.getUserId(), order.getCommodityId()));
+        trendingTracker.record(order.getCommodityId(), TrendingSignal.ORDER,
+                order.getBuyNumber() != null && order.getBuyNumber() > 0 ? order.getBuyNumber() : 1);
+    }
+
+    /**
+     * 秒杀中的商品只能通过秒杀入口排队下单
+     */
+    private void rejectIfFlashSale(Long commodityId) {
+        if (flashSaleManager.isActive(commodityId)) {
+            throw new BusinessException(ErrorCode.CONFLICT, "商品正在秒杀，请通过秒杀入口下单");
+        }
+    }
+
+    @Override
+    public FlashSaleVO startFlashSale(Long id, FlashSaleDTO flashSaleDTO) {
+        loadCommodity(id);
+        double permitsPerSecond = flashSaleDTO != null && flashSaleDTO.getPermitsPerSecond() != null
+                ? flashSaleDTO.getPermitsPerSecond() : DEFAULT_FLASH_SALE_PERMITS;
+        if (permitsPerSecond <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "每秒放行数必须大于0");
+        }
+        int burst = flashSaleDTO != null && flashSaleDTO.getBurst() != null
+                ? flashSaleDTO.getBurst() : (int) Math.ceil(permitsPerSecond);
+        if (burst <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "突发容量必须大于0");
+        }
+        return flashSaleManager.start(id, inventoryService.preload(id), permitsPerSecond, burst);
+    }
+
+    @Override
+    public void stopFlashSale(Long id) {
+        flashSaleManager.stop(id);
+    }
+
+    @Override
+    public FlashSaleVO getFlashSale(Long id) {
+        return flashSaleManager.get(id);
+    }
+
+    @Override
+    public FlashSaleTicketVO purchaseFlashSale(Long id, CommodityOrderDTO commodityOrderDTO) {
+        if (commodityOrderDTO == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数不能为空");
+        }
+        // 限购按登录用户计算，忽略请求体中的用户ID
+        Long userId = LoginUserContext.get();
+        if (userId == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "未登录");
+        }
+        // 秒杀每人限购一件
+        commodityOrderDTO.setUserId(userId);
+        commodityOrderDTO.setCommodityId(id);
+        commodityOrderDTO.setBuyNumber(1);
+        return flashSaleManager.enter(id, userId, () -> {
+            CommodityOrder order = newOrder(commodityOrderDTO);
+            // 扣减与订单在同一事务中提交，不经过组提交流水线，任一失败两者一起回滚
+            transactionTemplate.executeWithoutResult(status -> {
+                inventoryService.deduct(id, 1);
+                orderIngestionPipeline.insertInCurrentTransaction(order);
+            });
+            onOrderPlaced(order);
+            return order.getId();
+        });
+    }
+
+    @Override
+    public FlashSaleTicketVO getFlashSaleTicket(String ticketId) {
+        return flashSaleManager.ticket(ticketId);
+    }
+
+    @Override
+    public List<TrendingItemVO> listTrending(TrendingWindow window, int limit) {
+        return trendingTracker.top(window != null ? window : TrendingWindow.DAY, limit);
+    }
+    @Override
+    public List<CommoditySuggestVO> suggestCommodity(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return commoditySuggester.suggest(prefix, limit);
+    }
+    @Override
+    public List<SimilarItemVO> listSimilar(Long id, int limit) {
+        if (id == null || id <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "商品ID不能为空");
+        }
+        return similarCommodityIndex.similar(id, limit);
+    }
+    @Override
+    public TwoLevelCache.Stats getDetailCacheStats() {
+        return commodityDetailCache.stats();
+    }
+    @Override
+    public OrderIngestionPipeline.Stats getOrderWriterStats() {
+        return orderIngestionPipeline.stats();
+    }
+    @Override
+    public List<OptimisticRetryTemplate.Stats> getWriteContentionStats() {
+        return optimisticRetryTemplate.stats();
+    }
+
     @Override
     public Page<CommodityOrder> listOrder(CommodityOrderDTO queryDTO) {
-        return commodityOrderMapper.selectPage(queryDTO.createPage(), queryDTO.createQuery());
+        return commodityOrderMapper.selectPage(queryDTO.createPage(), queryDTO.createPageQuery());
     }
     @Override
     public CommodityOrder getOrderDetail(Long id) {
@@ -218,7 +714,22 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
     @Transactional(rollbackFor = Exception.class)
     @Override
     public void payOrder(CommodityOrder commodityOrder) {
-        commodityOrderMapper.updateById(commodityOrder);
+        if (commodityOrder == null || commodityOrder.getId() == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "订单ID不能为空");
+        }
+        // 已超时取消的订单（库存已回补）不能再支付
+        int updated = commodityOrderMapper.update(commodityOrder, new LambdaUpdateWrapper<CommodityOrder>()
+                .eq(CommodityOrder::getId, commodityOrder.getId())
+                .ne(CommodityOrder::getPayStatus, OrderConstant.PAY_STATUS_CANCELLED));
+        if (updated == 0) {
+            if (commodityOrderMapper.selectById(commodityOrder.getId()) == null) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "订单不存在");
+            }
+            throw new BusinessException(ErrorCode.CONFLICT, "订单已超时取消");
+        }
+        if (Objects.equals(commodityOrder.getPayStatus(), OrderConstant.PAY_STATUS_PAID)) {
+            orderExpiryService.cancel(commodityOrder.getId());
+        }
     }
     @Override
     public void score(CommodityScoreDTO commodityScoreDTO) {
@@ -230,10 +741,13 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
         score.setUpdateTime(LocalDateTime.now());
         score.setIsDelete(0);
         commodityScoreMapper.insert(score);
+        if (score.getScore() != null && score.getScore() >= SimilarCommodityIndex.MIN_POSITIVE_SCORE) {
+            eventPublisher.publishEvent(new CommodityInteractionEvent(score.getUserId(), score.getCommodityId()));
+        }
     }
     @Override
     public Page<CommodityScore> listScore(CommodityScoreDTO queryDTO) {
-        return commodityScoreMapper.selectPage(queryDTO.createPage(), queryDTO.createQuery());
+        return commodityScoreMapper.selectPage(queryDTO.createPage(), queryDTO.createPageQuery());
     }
     @Override
     public CommodityScore getScoreDetail(Long id) {
@@ -256,21 +770,28 @@ public class CommodityServiceImpl extends BasicServiceImpl<CommodityMapper, Comm
         type.setUpdateTime(LocalDateTime.now());
         type.setIsDelete(0);
         commodityTypeMapper.insert(type);
+        eventPublisher.publishEvent(new CommodityTypeChangedEvent());
     }
     @Override
     public Page<CommodityType> listType(CommodityTypeDTO queryDTO) {
-        return commodityTypeMapper.selectPage(queryDTO.createPage(), queryDTO.createQuery());
+        return commodityTypeDictionary.page(queryDTO);
+    }
+    @Override
+    public String getTypeListETag() {
+        return catalogVersions.tag("t", commodityTypeDictionary.version());
     }
     @Override
     public CommodityType getTypeDetail(Long id) {
-        return commodityTypeMapper.selectById(id);
+        return commodityTypeDictionary.get(id);
     }
     @Override
     public void updateType(CommodityType commodityType) {
         commodityTypeMapper.updateById(commodityType);
+        eventPublisher.publishEvent(new CommodityTypeChangedEvent());
     }
     @Override
     public void deleteType(List<Long> ids) {
         commodityTypeMapper.deleteBatchIds(ids);
+        eventPublisher.publishEvent(new CommodityTypeChangedEvent());
     }
 }
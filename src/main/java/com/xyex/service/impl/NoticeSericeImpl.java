@@ -1,6 +1,7 @@
 package com.xyex.service.impl;
 
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.Notice;
@@ -8,26 +9,38 @@ import com.xyex.entity.req.NoticeDTO;
 import com.xyex.infrastructure.model.BasicServiceImpl;
 import com.xyex.mapper.NoticeMapper;
 import com.xyex.service.NoticeService;
+import com.xyex.service.cache.CatalogVersions;
+import com.xyex.service.event.NoticeChangedEvent;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class NoticeSericeImpl extends BasicServiceImpl<NoticeMapper,Notice> implements NoticeService{
-    
+
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     public void addNotice(Notice notice) {
         this.save(notice);
+        eventPublisher.publishEvent(new NoticeChangedEvent());
     }
 
     @Override
     public Page<Notice> listNotice(NoticeDTO noticeDTO) {
-        return this.getBaseMapper().selectPage(noticeDTO.createPage(), noticeDTO.createQuery());
+        return this.getBaseMapper().selectPage(noticeDTO.createPage(), noticeDTO.createPageQuery());
+    }
+
+    @Override
+    public String getNoticeListETag() {
+        return catalogVersions.tag("n", catalogVersions.notices());
     }
 
     @Override
     public void updateNotice(Notice notice) {
         this.updateById(notice);
+        eventPublisher.publishEvent(new NoticeChangedEvent());
     }
 
     @Override
@@ -38,6 +51,7 @@ public class NoticeSericeImpl extends BasicServiceImpl<NoticeMapper,Notice> impl
     @Override
     public void deleteNoticeBatch(List<Long> ids) {
         this.removeByIds(ids);
+        eventPublisher.publishEvent(new NoticeChangedEvent());
     }
 
 }
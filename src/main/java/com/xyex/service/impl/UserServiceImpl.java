@@ -1,12 +1,16 @@
 package com.xyex.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xyex.entity.model.UserCommodityFavorite;
 import com.xyex.entity.model.UserInfo;
 import com.xyex.entity.req.CommodityFavoriteDTO;
 import com.xyex.entity.req.UserLoginDTO;
 import com.xyex.entity.req.UserQueryDTO;
+import com.xyex.entity.res.UserExportRow;
 import com.xyex.entity.res.UserProfileVO;
 import com.xyex.infrastructure.exception.BusinessException;
 import com.xyex.infrastructure.exception.ErrorCode;
@@ -15,14 +19,19 @@ import com.xyex.infrastructure.utils.ValidationUtils;
 import com.xyex.infrastructure.utils.JwtUtils;
 import com.xyex.mapper.UserMapper;
 import com.xyex.mapper.UserCommodityFavoriteMapper;
+import com.xyex.service.CommodityService;
 import com.xyex.service.UserService;
+import com.xyex.service.event.CommodityInteractionEvent;
+import com.xyex.shared.utils.EasyExcelUtils;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.DigestUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * 用户服务实现类
@@ -34,6 +43,8 @@ import jakarta.servlet.http.HttpServletRequest;
 public class UserServiceImpl extends BasicServiceImpl<UserMapper, UserInfo> implements UserService {
     private final JwtUtils jwtUtils;
     private final UserCommodityFavoriteMapper userCommodityFavoriteMapper;
+    private final CommodityService commodityService;
+    private final ApplicationEventPublisher eventPublisher;
     
 
     @Override
@@ -184,12 +195,20 @@ public class UserServiceImpl extends BasicServiceImpl<UserMapper, UserInfo> impl
         Page<UserInfo> page = userQueryDTO.createPage();
         
         // 创建查询条件
-        QueryWrapper<UserInfo> queryWrapper = (QueryWrapper<UserInfo>) userQueryDTO.createQuery();
+        Wrapper<UserInfo> queryWrapper = userQueryDTO.createPageQuery();
         
         // 执行分页查询
         return this.page(page, queryWrapper);
     }
 
+    @Override
+    public void exportUsers(UserQueryDTO userQueryDTO, HttpServletResponse response) {
+        UserQueryDTO query = userQueryDTO != null ? userQueryDTO : new UserQueryDTO();
+        EasyExcelUtils.exportExcelStreaming(response, UserExportRow.class, "用户列表",
+                sink -> this.baseMapper.streamList(query.createQuery(),
+                        context -> sink.accept(UserExportRow.of(context.getResultObject()))));
+    }
+
     @Override
     public UserProfileVO getUserProfile(Long userId) {
         // 验证用户ID
@@ -223,30 +242,33 @@ public class UserServiceImpl extends BasicServiceImpl<UserMapper, UserInfo> impl
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户不存在");
         }
 
-        QueryWrapper<UserCommodityFavorite> wrapper = new QueryWrapper<>();
-        wrapper.eq("user_id", userId)
-                .eq("commodity_id", commodityId);
+        LambdaQueryWrapper<UserCommodityFavorite> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserCommodityFavorite::getUserId, userId)
+                .eq(UserCommodityFavorite::getCommodityId, commodityId);
 
         UserCommodityFavorite existing = userCommodityFavoriteMapper.selectOne(wrapper);
         if (existing != null) {
-            if ("1".equals(existing.getStatus())) {
-                return;
+            // 条件更新：只有状态真正由取消变为收藏的请求才计数，并发重复收藏只会命中一次
+            if (switchFavoriteStatus(existing.getId(), "1", commodityFavoriteDTO.getRemark())) {
+                commodityService.incrementFavourNum(commodityId);
+                eventPublisher.publishEvent(new CommodityInteractionEvent(userId, commodityId));
             }
-            existing.setStatus("1");
-            existing.setRemark(commodityFavoriteDTO.getRemark());
-            userCommodityFavoriteMapper.updateById(existing);
             return;
         }
 
+        // 并发首次收藏由唯一索引 (userId, commodityId) 兜底，失败时整个事务回滚
         UserCommodityFavorite favorite = new UserCommodityFavorite();
         favorite.setUserId(userId);
         favorite.setCommodityId(commodityId);
         favorite.setRemark(commodityFavoriteDTO.getRemark());
         favorite.setStatus("1");
         userCommodityFavoriteMapper.insert(favorite);
+        commodityService.incrementFavourNum(commodityId);
+        eventPublisher.publishEvent(new CommodityInteractionEvent(userId, commodityId));
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteCommodityFavorite(CommodityFavoriteDTO commodityFavoriteDTO) {
         if (commodityFavoriteDTO == null
                 || commodityFavoriteDTO.getUserId() == null
@@ -262,18 +284,33 @@ public class UserServiceImpl extends BasicServiceImpl<UserMapper, UserInfo> impl
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户不存在");
         }
 
-        QueryWrapper<UserCommodityFavorite> wrapper = new QueryWrapper<>();
-        wrapper.eq("user_id", userId)
-                .eq("commodity_id", commodityId);
+        LambdaQueryWrapper<UserCommodityFavorite> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserCommodityFavorite::getUserId, userId)
+                .eq(UserCommodityFavorite::getCommodityId, commodityId);
 
         UserCommodityFavorite existing = userCommodityFavoriteMapper.selectOne(wrapper);
-        if (existing != null) {
-            existing.setStatus("0");
-            userCommodityFavoriteMapper.updateById(existing);
-            return;
+        if (existing != null && switchFavoriteStatus(existing.getId(), "0", null)) {
+            commodityService.decrementFavourNum(commodityId);
         }
     }
 
+    /**
+     * 条件切换收藏状态
+     *
+     * @param favoriteId 收藏记录ID
+     * @param status     目标状态
+     * @param remark     备注，为 null 时不修改
+     * @return 状态是否发生变化
+     */
+    private boolean switchFavoriteStatus(Long favoriteId, String status, String remark) {
+        LambdaUpdateWrapper<UserCommodityFavorite> update = new LambdaUpdateWrapper<>();
+        update.set(UserCommodityFavorite::getStatus, status)
+                .set(remark != null, UserCommodityFavorite::getRemark, remark)
+                .eq(UserCommodityFavorite::getId, favoriteId)
+                .ne(UserCommodityFavorite::getStatus, status);
+        return userCommodityFavoriteMapper.update(null, update) > 0;
+    }
+
     @Override
     public Page<UserCommodityFavorite> listCommodityFavorite(CommodityFavoriteDTO commodityFavoriteDTO) {
         if (commodityFavoriteDTO == null
@@ -288,7 +325,7 @@ public class UserServiceImpl extends BasicServiceImpl<UserMapper, UserInfo> impl
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户不存在");
         }
 
-        return userCommodityFavoriteMapper.selectPage(commodityFavoriteDTO.createPage(), commodityFavoriteDTO.createQuery());
+        return userCommodityFavoriteMapper.selectPage(commodityFavoriteDTO.createPage(), commodityFavoriteDTO.createPageQuery());
     }   
 
 }
@@ -0,0 +1,246 @@
+package com.xyex.service.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 基于本地文件的追加写库存日志
+ * <p>
+ * 每条记录定长 21 字节：类型(1) + 商品ID(8) + 数量(8) + CRC32(4)。
+ * 扣减记录在返回前 fsync；并发的扣减共享同一次 fsync（组提交），
+ * 已落盘位置覆盖本次写入的调用方直接返回。
+ * <p>
+ * 重放时遇到长度不足或校验失败的记录即视为崩溃时写了一半的尾部并截断。
+ * 文件超过阈值时只保留未结清的扣减量重写为新文件，再原子替换。
+ * <p>
+ * 写回数据库与写入结清记录之间崩溃时，重启后同一扣减会再写回一次，
+ * 数据库库存偏少（少卖）而不会超卖。
+ */
+@Slf4j
+public class FileInventoryJournal implements InventoryJournal {
+
+    private static final byte DEDUCTED = 1;
+    private static final byte SETTLED = 2;
+    private static final int RECORD_SIZE = 21;
+
+    private final Path path;
+    private final boolean fsync;
+    private final long compactSize;
+
+    private final Object forceLock = new Object();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * 商品ID -> 未结清的扣减量，只在持有 this 锁时访问
+     */
+    private final Map<Long, Long> outstanding = new HashMap<>();
+
+    private FileChannel channel;
+    private long fileSize;
+
+    /**
+     * 累计写入字节数（跨文件重写单调递增）
+     */
+    private long written;
+
+    /**
+     * 已 fsync 的累计字节数
+     */
+    private volatile long durable;
+
+    public FileInventoryJournal(Path path, boolean fsync, long compactSize) {
+        this.path = path;
+        this.fsync = fsync;
+        this.compactSize = compactSize;
+    }
+
+    @Override
+    public Map<Long, Long> recover() {
+        synchronized (forceLock) {
+            synchronized (this) {
+                try {
+                    if (path.getParent() != null) {
+                        Files.createDirectories(path.getParent());
+                    }
+                    int records = Files.exists(path) ? replay() : 0;
+                    rewrite();
+                    log.info("库存日志重放完成 - 记录数: {}, 未结清商品数: {}", records, outstanding.size());
+                    return new HashMap<>(outstanding);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("库存日志重放失败: " + path, e);
+                }
+            }
+        }
+    }
+
+    private int replay() throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        int records = 0;
+        while (content.remaining() >= RECORD_SIZE) {
+            byte type = content.get(content.position());
+            crc.reset();
+            crc.update(content.array(), content.position(), RECORD_SIZE - 4);
+            if ((int) crc.getValue() != content.getInt(content.position() + RECORD_SIZE - 4)
+                    || (type != DEDUCTED && type != SETTLED)) {
+                break;
+            }
+            content.get();
+            long commodityId = content.getLong();
+            long amount = content.getLong();
+            content.getInt();
+            apply(type, commodityId, amount);
+            records++;
+        }
+        if (content.hasRemaining()) {
+            log.warn("库存日志尾部损坏，已丢弃 {} 字节", content.remaining());
+        }
+        return records;
+    }
+
+    @Override
+    public void deducted(Long commodityId, long amount) {
+        long end;
+        synchronized (this) {
+            append(DEDUCTED, commodityId, amount);
+            end = written;
+        }
+        if (fsync) {
+            force(end);
+        }
+    }
+
+    @Override
+    public void settled(Map<Long, Long> amounts) {
+        if (amounts.isEmpty()) {
+            return;
+        }
+        long end;
+        boolean compact;
+        synchronized (this) {
+            amounts.forEach((commodityId, amount) -> append(SETTLED, commodityId, amount));
+            end = written;
+            compact = fileSize > compactSize;
+        }
+        if (fsync) {
+            force(end);
+        }
+        if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * 组提交：已落盘位置不小于 end 时直接返回，否则由一个线程代表所有等待者 fsync
+     */
+    private void force(long end) {
+        if (durable >= end) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durable >= end) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = written;
+                current = channel;
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("库存日志落盘失败: " + path, e);
+            }
+            durable = target;
+        }
+    }
+
+    private void compact() {
+        synchronized (forceLock) {
+            synchronized (this) {
+                if (fileSize <= compactSize) {
+                    return;
+                }
+                long before = fileSize;
+                try {
+                    rewrite();
+                } catch (IOException e) {
+                    log.error("库存日志重写失败: {}", path, e);
+                    return;
+                }
+                log.info("库存日志已重写 - {} -> {} 字节", before, fileSize);
+            }
+        }
+    }
+
+    /**
+     * 只保留未结清的扣减量写入临时文件，落盘后原子替换并切换追加通道（调用方持有两把锁）
+     */
+    private void rewrite() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<Long, Long> entry : outstanding.entrySet()) {
+                encode(DEDUCTED, entry.getKey(), entry.getValue());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = (long) outstanding.size() * RECORD_SIZE;
+        durable = written;
+    }
+
+    private void append(byte type, long commodityId, long amount) {
+        if (channel == null) {
+            throw new IllegalStateException("库存日志尚未重放");
+        }
+        encode(type, commodityId, amount);
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("库存日志写入失败: " + path, e);
+        }
+        fileSize += RECORD_SIZE;
+        written += RECORD_SIZE;
+        apply(type, commodityId, amount);
+    }
+
+    private void encode(byte type, long commodityId, long amount) {
+        record.clear();
+        record.put(type).putLong(commodityId).putLong(amount);
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue());
+        record.flip();
+    }
+
+    private void apply(byte type, long commodityId, long amount) {
+        long remaining = outstanding.getOrDefault(commodityId, 0L) + (type == DEDUCTED ? amount : -amount);
+        if (remaining > 0) {
+            outstanding.put(commodityId, remaining);
+        } else {
+            outstanding.remove(commodityId);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.xyex.service.inventory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内库存存储（测试或单机环境的替身）
+ * 每个操作在 {@link ConcurrentHashMap} 的单键原子操作内完成，等价于 Redis 端的 Lua 脚本
+ */
+public class InMemoryInventoryStore implements InventoryStore {
+
+    private final Map<Long, Long> stocks = new ConcurrentHashMap<>();
+
+    @Override
+    public long deduct(Long commodityId, long amount) {
+        long[] result = {INSUFFICIENT};
+        stocks.computeIfPresent(commodityId, (id, stock) -> {
+            if (stock < amount) {
+                return stock;
+            }
+            result[0] = stock - amount;
+            return result[0];
+        });
+        return result[0];
+    }
+
+    @Override
+    public Long get(Long commodityId) {
+        return stocks.get(commodityId);
+    }
+
+    @Override
+    public boolean loadIfAbsent(Long commodityId, long stock) {
+        return stocks.putIfAbsent(commodityId, stock) == null;
+    }
+
+    @Override
+    public void release(Long commodityId, long amount) {
+        stocks.computeIfPresent(commodityId, (id, stock) -> stock + amount);
+    }
+
+    @Override
+    public boolean compareAndSet(Long commodityId, long expected, long update) {
+        return stocks.replace(commodityId, expected, update);
+    }
+
+    @Override
+    public void evict(Long commodityId) {
+        stocks.remove(commodityId);
+    }
+}
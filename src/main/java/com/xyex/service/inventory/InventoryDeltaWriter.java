@@ -0,0 +1,98 @@
+package com.xyex.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 库存扣减量 JDBC 批量写回（以及回补、后台调整库存）
+ * <p>
+ * 一批商品只走一次 {@code executeBatch}，每行仍带库存守卫；
+ * 连接串开启 {@code rewriteBatchedStatements} 后驱动以多语句方式发送，并逐条返回影响行数。
+ * 被守卫拒绝的扣减量已经在存储中售出，不能丢弃，由 {@link #deductClamped} 扣减到 0 为止。
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryDeltaWriter {
+
+    private static final String DEDUCT_SQL = "UPDATE commodity SET commodityInventory = commodityInventory - ?"
+            + " WHERE id = ? AND isDelete = 0 AND commodityInventory >= ?";
+
+    private static final String DEDUCT_CLAMPED_SQL = "UPDATE commodity"
+            + " SET commodityInventory = GREATEST(commodityInventory - ?, 0) WHERE id = ? AND isDelete = 0";
+
+    private static final String ADJUST_SQL = "UPDATE commodity"
+            + " SET commodityInventory = GREATEST(commodityInventory + ?, 0) WHERE id = ? AND isDelete = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量扣减库存
+     *
+     * @param deltas 商品ID -> 扣减量
+     * @return 被守卫拒绝（库存不足或已删除）的商品ID
+     */
+    public Set<Long> deduct(List<Map.Entry<Long, Long>> deltas) {
+        Set<Long> rejected = new HashSet<>();
+        if (deltas.isEmpty()) {
+            return rejected;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(DEDUCT_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+            ps.setLong(3, delta.getValue());
+        });
+        int[] rows = counts.length == 0 ? new int[0] : counts[0];
+        for (int i = 0; i < rows.length; i++) {
+            // SUCCESS_NO_INFO（驱动未返回行数）按成功处理，偏差由对账修复
+            if (rows[i] == 0) {
+                rejected.add(deltas.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * 批量扣减库存，不足时扣减到 0
+     *
+     * @param deltas 商品ID -> 扣减量
+     * @return 未更新（已删除）的商品ID
+     */
+    public Set<Long> deductClamped(List<Map.Entry<Long, Long>> deltas) {
+        Set<Long> missing = new HashSet<>();
+        if (deltas.isEmpty()) {
+            return missing;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(DEDUCT_CLAMPED_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+        int[] rows = counts.length == 0 ? new int[0] : counts[0];
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] == 0) {
+                missing.add(deltas.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 批量调整库存（回补为正，后台调减为负），结果不低于 0
+     *
+     * @param deltas 商品ID -> 调整量
+     */
+    public void adjust(List<Map.Entry<Long, Long>> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADJUST_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.xyex.service.inventory;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 库存扣减日志
+ * 记录已提交但尚未写回数据库的扣减，进程崩溃后据此恢复，避免重启后按数据库旧库存超卖
+ */
+public interface InventoryJournal {
+
+    /**
+     * 不启用日志时使用的空实现
+     */
+    InventoryJournal NONE = new InventoryJournal() {
+        @Override
+        public Map<Long, Long> recover() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void deducted(Long commodityId, long amount) {
+        }
+
+        @Override
+        public void settled(Map<Long, Long> amounts) {
+        }
+    };
+
+    /**
+     * 重放日志
+     *
+     * @return 商品ID -> 尚未写回数据库的扣减量
+     */
+    Map<Long, Long> recover();
+
+    /**
+     * 记录一次已提交的扣减，返回时已持久化
+     *
+     * @param commodityId 商品ID
+     * @param amount      扣减量
+     */
+    void deducted(Long commodityId, long amount);
+
+    /**
+     * 记录一批已结清的扣减量：已写回数据库、被守卫拒绝而丢弃或所在事务未能提交
+     *
+     * @param amounts 商品ID -> 扣减量
+     */
+    void settled(Map<Long, Long> amounts);
+}
@@ -0,0 +1,64 @@
+package com.xyex.service.inventory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内库存账本（单机部署，无 Redis）
+ * <p>
+ * 每个商品一个独立的 {@link AtomicLong} 余额，扣减为 CAS 循环，不加锁；
+ * 不同商品的扣减互不影响，同一商品上的竞争只表现为 CAS 重试。
+ * 余额在进程重启后丢失，由 {@link InventoryService} 从数据库预热并重放 {@link InventoryJournal}。
+ */
+public class InventoryLedger implements InventoryStore {
+
+    private final Map<Long, AtomicLong> balances = new ConcurrentHashMap<>();
+
+    @Override
+    public long deduct(Long commodityId, long amount) {
+        AtomicLong balance = balances.get(commodityId);
+        if (balance == null) {
+            return INSUFFICIENT;
+        }
+        while (true) {
+            long current = balance.get();
+            if (current < amount) {
+                return INSUFFICIENT;
+            }
+            if (balance.compareAndSet(current, current - amount)) {
+                return current - amount;
+            }
+        }
+    }
+
+    @Override
+    public Long get(Long commodityId) {
+        AtomicLong balance = balances.get(commodityId);
+        return balance == null ? null : balance.get();
+    }
+
+    @Override
+    public boolean loadIfAbsent(Long commodityId, long stock) {
+        return balances.putIfAbsent(commodityId, new AtomicLong(stock)) == null;
+    }
+
+    @Override
+    public void release(Long commodityId, long amount) {
+        AtomicLong balance = balances.get(commodityId);
+        if (balance != null) {
+            balance.addAndGet(amount);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(Long commodityId, long expected, long update) {
+        AtomicLong balance = balances.get(commodityId);
+        return balance != null && balance.compareAndSet(expected, update);
+    }
+
+    @Override
+    public void evict(Long commodityId) {
+        balances.remove(commodityId);
+    }
+}
@@ -0,0 +1,460 @@
+package com.xyex.service.inventory;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xyex.entity.model.Commodity;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.counter.DeltaAccumulator;
+import com.xyex.service.event.CommodityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 库存扣减服务
+ * <p>
+ * 启用 {@link InventoryStore} 时，扣减只在存储中原子完成，数据库不再参与购买请求：
+ * 事务提交后扣减量计入待同步增量，由定时任务以带守卫的
+ * {@code UPDATE ... WHERE commodityInventory >= ?} 写回；事务回滚时回补存储。
+ * 库存在首次扣减时从数据库加载（扣除本节点尚未同步的增量，包括正在写回、尚未提交的部分）。
+ * <p>
+ * 存储加载后不再因商品修改而移除：回补与后台修改库存都以增量同时写入数据库和存储，
+ * 重新加载只能扣除本节点的待同步增量，多节点共享 Redis 时会把其他节点未写回的扣减重新卖出。
+ * <p>
+ * 对账任务比较存储与数据库，连续两次观察到相同的偏差时以数据库为准修复存储，
+ * 避免把进行中的事务误判为偏差。未启用时直接执行数据库侧带守卫的扣减。
+ * <p>
+ * 本地账本模式（{@link InventoryLedger}）下，扣减在事务提交前写入 {@link InventoryJournal}，
+ * 启动时先重放日志恢复未写回的扣减量，再从数据库预热全部商品的库存。
+ */
+@Slf4j
+@Component
+public class InventoryService {
+
+    /**
+     * 对账时单条查询包含的最大商品数
+     */
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final CommodityMapper commodityMapper;
+    private final InventoryStore store;
+    private final InventoryJournal journal;
+    private final InventoryDeltaWriter deltaWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int syncBatchSize;
+
+    /**
+     * 已提交、尚未写回数据库的扣减量
+     */
+    private final DeltaAccumulator unsynced = new DeltaAccumulator();
+
+    /**
+     * 已从 {@link #unsynced} 取出、正在写回数据库的扣减量，写回提交后才扣除
+     */
+    private final DeltaAccumulator syncing = new DeltaAccumulator();
+
+    /**
+     * 本节点加载过的商品，对账范围
+     */
+    private final Set<Long> tracked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 上次对账观察到的偏差：商品ID -> 存储库存 - 数据库库存
+     */
+    private final Map<Long, Long> suspectedDrifts = new ConcurrentHashMap<>();
+
+    public InventoryService(CommodityMapper commodityMapper, InventoryStore store, InventoryJournal journal,
+                            InventoryDeltaWriter deltaWriter, ApplicationEventPublisher eventPublisher,
+                            @Value("${commodity.inventory.sync-batch-size:500}") int syncBatchSize) {
+        this.commodityMapper = commodityMapper;
+        this.store = store;
+        this.journal = journal;
+        this.deltaWriter = deltaWriter;
+        this.eventPublisher = eventPublisher;
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    /**
+     * 重放扣减日志，在接收请求之前完成
+     */
+    @PostConstruct
+    public void recover() {
+        Map<Long, Long> outstanding = journal.recover();
+        unsynced.restore(outstanding);
+        if (!outstanding.isEmpty()) {
+            log.warn("从扣减日志恢复未写回的扣减 - 商品数: {}", outstanding.size());
+        }
+    }
+
+    /**
+     * 本地账本模式下从数据库预热全部商品库存（预热前的请求按需加载）
+     * 与 {@link #sync()} 互斥，预热期间数据库库存不会因本节点写回而变化
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        if (journal == InventoryJournal.NONE) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Commodity> commodities = commodityMapper.selectList(new LambdaQueryWrapper<Commodity>()
+                .select(Commodity::getId, Commodity::getCommodityInventory)
+                .eq(Commodity::getIsDelete, 0));
+        for (Commodity commodity : commodities) {
+            long stock = commodity.getCommodityInventory() == null ? 0 : commodity.getCommodityInventory();
+            store.loadIfAbsent(commodity.getId(), Math.max(stock - pending(commodity.getId()), 0));
+            tracked.add(commodity.getId());
+        }
+        log.info("库存预热完成 - 商品数: {}, 耗时: {}ms", commodities.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isEnabled() {
+        return store != InventoryStore.NONE;
+    }
+
+    /**
+     * 扣减库存
+     *
+     * @param commodityId 商品ID
+     * @param amount      扣减数量
+     * @throws BusinessException 商品不存在或库存不足
+     */
+    public void deduct(Long commodityId, long amount) {
+        if (amount <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "扣减数量必须大于0");
+        }
+        if (!isEnabled()) {
+            deductFromDatabase(commodityId, amount);
+            return;
+        }
+        long remaining;
+        try {
+            remaining = store.deduct(commodityId, amount);
+            if (remaining == InventoryStore.INSUFFICIENT && store.get(commodityId) == null) {
+                load(commodityId);
+                remaining = store.deduct(commodityId, amount);
+            }
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("库存扣减失败 - 商品ID: {}", commodityId, e);
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "库存服务暂不可用");
+        }
+        if (remaining == InventoryStore.INSUFFICIENT) {
+            throw new BusinessException(ErrorCode.CONFLICT, "库存不足");
+        }
+        onDeducted(commodityId, amount);
+    }
+
+    private void deductFromDatabase(Long commodityId, long amount) {
+        if (commodityMapper.deductInventory(commodityId, amount) == 0) {
+            Commodity existing = commodityMapper.selectById(commodityId);
+            if (existing == null || existing.getIsDelete() == 1) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+            }
+            throw new BusinessException(ErrorCode.CONFLICT, "库存不足");
+        }
+        eventPublisher.publishEvent(CommodityChangedEvent.counter(commodityId));
+    }
+
+    /**
+     * 从数据库加载库存，扣除本节点已提交未同步的扣减量
+     * <p>
+     * 先读待同步增量再读数据库：中间恰好写回提交时同一批扣减量被扣除两次（少卖），不会漏扣（超卖）
+     */
+    private void load(Long commodityId) {
+        long pending = pending(commodityId);
+        store.loadIfAbsent(commodityId, Math.max(selectStock(commodityId) - pending, 0));
+        tracked.add(commodityId);
+    }
+
+    /**
+     * 本节点尚未写回数据库的扣减量，先读 unsynced 再读 syncing，与 {@link DeltaAccumulator#transferTo} 的顺序配合
+     */
+    private long pending(Long commodityId) {
+        return unsynced.pending(commodityId) + syncing.pending(commodityId);
+    }
+
+    private long selectStock(Long commodityId) {
+        Commodity commodity = commodityMapper.selectOne(new LambdaQueryWrapper<Commodity>()
+                .select(Commodity::getId, Commodity::getCommodityInventory)
+                .eq(Commodity::getId, commodityId)
+                .eq(Commodity::getIsDelete, 0));
+        if (commodity == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在");
+        }
+        return commodity.getCommodityInventory() == null ? 0 : commodity.getCommodityInventory();
+    }
+
+    /**
+     * 预热库存（例如秒杀开启前），返回当前可售库存
+     *
+     * @param commodityId 商品ID
+     * @return 可售库存
+     */
+    public long preload(Long commodityId) {
+        if (!isEnabled()) {
+            return selectStock(commodityId);
+        }
+        if (store.get(commodityId) == null) {
+            load(commodityId);
+        }
+        Long stock = store.get(commodityId);
+        return stock == null ? 0 : stock;
+    }
+
+    /**
+     * 回补库存（例如取消未支付的订单），须在写订单状态的同一事务中调用
+     *
+     * @param amounts 商品ID -> 回补量
+     */
+    public void restock(Map<Long, Long> amounts) {
+        apply(amounts);
+    }
+
+    /**
+     * 按增量调整库存（后台修改商品库存），须在修改商品的同一事务中调用
+     * <p>
+     * 以增量而不是新值写入：数据库中的库存可能还未扣除已售出的待同步增量，覆盖写会把它们重新卖出。
+     *
+     * @param commodityId 商品ID
+     * @param delta       调整量，增加为正、减少为负
+     */
+    public void adjust(Long commodityId, long delta) {
+        if (delta != 0) {
+            apply(Map.of(commodityId, delta));
+        }
+    }
+
+    /**
+     * 数据库与存储同时加上调整量，二者之间的待同步增量保持不变；存储的调整在事务提交后进行，
+     * 存储中未加载的商品跳过，下次扣减时从数据库加载
+     */
+    private void apply(Map<Long, Long> amounts) {
+        if (amounts.isEmpty()) {
+            return;
+        }
+        deltaWriter.adjust(new ArrayList<>(amounts.entrySet()));
+        // 事务中发布的事件由监听方在提交后处理
+        amounts.keySet().forEach(commodityId -> eventPublisher.publishEvent(CommodityChangedEvent.counter(commodityId)));
+        if (!isEnabled()) {
+            return;
+        }
+        Runnable release = () -> amounts.forEach((commodityId, amount) -> {
+            try {
+                store.release(commodityId, amount);
+            } catch (Exception e) {
+                log.warn("库存调整写入存储失败，由对账修复 - 商品ID: {}, 数量: {}", commodityId, amount, e);
+            }
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release.run();
+            }
+        });
+    }
+
+    /**
+     * 处于事务中时提交前写日志、提交后计入待同步增量，未提交时回补存储
+     */
+    private void onDeducted(Long commodityId, long amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                journal.deducted(commodityId, amount);
+            } catch (RuntimeException e) {
+                store.release(commodityId, amount);
+                throw e;
+            }
+            unsynced.add(commodityId, amount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                journal.deducted(commodityId, amount);
+                journaled = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    unsynced.add(commodityId, amount);
+                    return;
+                }
+                store.release(commodityId, amount);
+                if (journaled) {
+                    journal.settled(Map.of(commodityId, amount));
+                }
+            }
+        });
+    }
+
+    /**
+     * 定时把扣减量分批写回数据库，每批一次 JDBC 批量执行
+     * <p>
+     * 取出的扣减量先转入 {@link #syncing}，写回提交后才从中扣除，期间加载库存仍会扣除它们。
+     * 被守卫拒绝说明数据库库存已少于待写回的扣减量，这些库存已在存储中售出，不能丢弃：
+     * 改为扣减到 0 并告警，存储与数据库的偏差交给对账任务修复。
+     */
+    @Scheduled(fixedDelayString = "${commodity.inventory.sync-interval:1000}")
+    public synchronized void sync() {
+        Map<Long, Long> drained = unsynced.transferTo(syncing);
+        if (drained.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(drained.entrySet());
+        for (int from = 0; from < entries.size(); from += syncBatchSize) {
+            List<Map.Entry<Long, Long>> batch = entries.subList(from, Math.min(from + syncBatchSize, entries.size()));
+            Set<Long> missing;
+            try {
+                missing = writeBack(batch);
+            } catch (Exception e) {
+                // 放回增量，下个周期重试；先放回再扣除，期间不会漏计
+                batch.forEach(entry -> unsynced.add(entry.getKey(), entry.getValue()));
+                batch.forEach(entry -> syncing.add(entry.getKey(), -entry.getValue()));
+                log.error("库存同步失败，商品数: {}", batch.size(), e);
+                continue;
+            }
+            Map<Long, Long> settled = new HashMap<>();
+            for (Map.Entry<Long, Long> entry : batch) {
+                syncing.add(entry.getKey(), -entry.getValue());
+                settled.put(entry.getKey(), entry.getValue());
+                if (missing.contains(entry.getKey())) {
+                    log.info("商品已删除，丢弃待同步扣减 - 商品ID: {}, 扣减量: {}", entry.getKey(), entry.getValue());
+                } else {
+                    eventPublisher.publishEvent(CommodityChangedEvent.counter(entry.getKey()));
+                }
+            }
+            journal.settled(settled);
+        }
+    }
+
+    /**
+     * 写回一批扣减量，被守卫拒绝的按扣减到 0 重新写回
+     *
+     * @return 已删除、无法写回的商品ID
+     */
+    private Set<Long> writeBack(List<Map.Entry<Long, Long>> batch) {
+        Set<Long> rejected = deltaWriter.deduct(batch);
+        if (rejected.isEmpty()) {
+            return rejected;
+        }
+        List<Map.Entry<Long, Long>> clamped = batch.stream()
+                .filter(entry -> rejected.contains(entry.getKey()))
+                .toList();
+        Set<Long> missing = deltaWriter.deductClamped(clamped);
+        for (Map.Entry<Long, Long> entry : clamped) {
+            if (!missing.contains(entry.getKey())) {
+                log.warn("库存同步超出数据库库存，已扣减至 0，存储偏差由对账修复 - 商品ID: {}, 扣减量: {}",
+                        entry.getKey(), entry.getValue());
+            }
+        }
+        return missing;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sync();
+    }
+
+    /**
+     * 定时对账：存在未同步扣减的商品跳过，其余比较存储与数据库
+     */
+    @Scheduled(fixedDelayString = "${commodity.inventory.reconcile-interval:300000}")
+    public void reconcile() {
+        if (!isEnabled() || tracked.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(tracked);
+        int repaired = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, ids.size()));
+            try {
+                repaired += reconcile(chunk);
+            } catch (Exception e) {
+                log.error("库存对账失败，商品数: {}", chunk.size(), e);
+            }
+        }
+        if (repaired > 0) {
+            log.warn("库存对账完成 - 商品数: {}, 修复: {}", ids.size(), repaired);
+        }
+    }
+
+    private int reconcile(List<Long> chunk) {
+        Map<Long, Long> stocks = commodityMapper.selectList(new LambdaQueryWrapper<Commodity>()
+                        .select(Commodity::getId, Commodity::getCommodityInventory)
+                        .in(Commodity::getId, chunk)
+                        .eq(Commodity::getIsDelete, 0))
+                .stream()
+                .collect(Collectors.toMap(Commodity::getId,
+                        c -> c.getCommodityInventory() == null ? 0L : c.getCommodityInventory().longValue()));
+        int repaired = 0;
+        for (Long commodityId : chunk) {
+            Long cached = store.get(commodityId);
+            Long stock = stocks.get(commodityId);
+            if (cached == null || stock == null) {
+                // 已被移除或商品已删除，停止跟踪
+                if (stock == null) {
+                    store.evict(commodityId);
+                }
+                tracked.remove(commodityId);
+                suspectedDrifts.remove(commodityId);
+                continue;
+            }
+            if (pending(commodityId) != 0 || cached.equals(stock)) {
+                suspectedDrifts.remove(commodityId);
+                continue;
+            }
+            long drift = cached - stock;
+            Long previous = suspectedDrifts.put(commodityId, drift);
+            if (previous == null || previous != drift) {
+                continue;
+            }
+            if (store.compareAndSet(commodityId, cached, stock)) {
+                suspectedDrifts.remove(commodityId);
+                log.warn("库存偏差已修复 - 商品ID: {}, 存储: {}, 数据库: {}", commodityId, cached, stock);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * 商品删除后移除存储中的库存
+     * 新增与修改不移除：新增的商品首次扣减时加载，后台修改库存已通过 {@link #adjust} 同时写入存储
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (!isEnabled() || event.type() != CommodityChangedEvent.Type.DELETE) {
+            return;
+        }
+        store.evict(event.commodityId());
+        tracked.remove(event.commodityId());
+        suspectedDrifts.remove(event.commodityId());
+        unsynced.remove(event.commodityId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.xyex.service.inventory;
+
+/**
+ * 库存存储
+ * 生产环境使用 Redis 实现，测试或单机环境可使用进程内替身；两者的扣减语义与
+ * {@code lua/deduct_inventory.lua} 一致
+ */
+public interface InventoryStore {
+
+    /**
+     * 库存不足或库存未加载
+     */
+    long INSUFFICIENT = -1;
+
+    /**
+     * 不启用库存存储时使用的空实现，扣减直接走数据库
+     */
+    InventoryStore NONE = new InventoryStore() {
+        @Override
+        public long deduct(Long commodityId, long amount) {
+            return INSUFFICIENT;
+        }
+
+        @Override
+        public Long get(Long commodityId) {
+            return null;
+        }
+
+        @Override
+        public boolean loadIfAbsent(Long commodityId, long stock) {
+            return false;
+        }
+
+        @Override
+        public void release(Long commodityId, long amount) {
+        }
+
+        @Override
+        public boolean compareAndSet(Long commodityId, long expected, long update) {
+            return false;
+        }
+
+        @Override
+        public void evict(Long commodityId) {
+        }
+    };
+
+    /**
+     * 原子扣减
+     *
+     * @param commodityId 商品ID
+     * @param amount      扣减数量
+     * @return 扣减后的库存，库存不足或未加载时返回 {@link #INSUFFICIENT}
+     */
+    long deduct(Long commodityId, long amount);
+
+    /**
+     * 读取库存
+     *
+     * @param commodityId 商品ID
+     * @return 库存，未加载时返回 null
+     */
+    Long get(Long commodityId);
+
+    /**
+     * 未加载时写入库存
+     *
+     * @param commodityId 商品ID
+     * @param stock       库存
+     * @return 是否写入
+     */
+    boolean loadIfAbsent(Long commodityId, long stock);
+
+    /**
+     * 回补库存，未加载时忽略（下次加载会从数据库读取）
+     * 数量为负时调减库存（后台改小库存），结果可能为负，此时任何扣减都不足
+     *
+     * @param commodityId 商品ID
+     * @param amount      回补数量
+     */
+    void release(Long commodityId, long amount);
+
+    /**
+     * 库存仍为 expected 时改为 update
+     *
+     * @param commodityId 商品ID
+     * @param expected    期望值
+     * @param update      新值
+     * @return 是否修改
+     */
+    boolean compareAndSet(Long commodityId, long expected, long update);
+
+    /**
+     * 移除库存，下次扣减时重新从数据库加载
+     *
+     * @param commodityId 商品ID
+     */
+    void evict(Long commodityId);
+}
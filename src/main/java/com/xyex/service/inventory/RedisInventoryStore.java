@@ -0,0 +1,103 @@
+package com.xyex.service.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 基于 Redis 的库存存储
+ * <p>
+ * 扣减使用 {@code lua/deduct_inventory.lua}，启动时 SCRIPT LOAD 预加载，之后按 SHA 执行 EVALSHA
+ * （Redis 重启丢失脚本缓存时由 Spring 回退为 EVAL 并重新缓存）。
+ * 扣减失败直接抛出异常，由调用方拒绝本次购买；回补、移除失败只记录日志，由对账任务修复。
+ */
+@Slf4j
+public class RedisInventoryStore implements InventoryStore {
+
+    private static final String KEY_PREFIX = "inventory:stock:";
+
+    private static final RedisScript<Long> DEDUCT_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/deduct_inventory.lua"), Long.class);
+
+    /**
+     * 键存在时才回补，避免为未加载的商品写入错误的库存
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCRBY', KEYS[1], ARGV[1]) end return -1",
+            Long.class);
+
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then redis.call('SET', KEYS[1], ARGV[2]) return 1 end return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisInventoryStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        preload(DEDUCT_SCRIPT);
+        preload(RELEASE_SCRIPT);
+        preload(COMPARE_AND_SET_SCRIPT);
+    }
+
+    private void preload(RedisScript<Long> script) {
+        try {
+            String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                    .scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            log.info("库存脚本已预加载: {}", sha);
+        } catch (Exception e) {
+            log.warn("库存脚本预加载失败，首次执行时加载: {}", script.getSha1(), e);
+        }
+    }
+
+    @Override
+    public long deduct(Long commodityId, long amount) {
+        Long result = redisTemplate.execute(DEDUCT_SCRIPT, List.of(key(commodityId)), String.valueOf(amount));
+        return result == null ? INSUFFICIENT : result;
+    }
+
+    @Override
+    public Long get(Long commodityId) {
+        String value = redisTemplate.opsForValue().get(key(commodityId));
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    @Override
+    public boolean loadIfAbsent(Long commodityId, long stock) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key(commodityId), String.valueOf(stock)));
+    }
+
+    @Override
+    public void release(Long commodityId, long amount) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key(commodityId)), String.valueOf(amount));
+        } catch (Exception e) {
+            log.warn("回补库存失败 - 商品ID: {}, 数量: {}", commodityId, amount, e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(Long commodityId, long expected, long update) {
+        Long result = redisTemplate.execute(COMPARE_AND_SET_SCRIPT, List.of(key(commodityId)),
+                String.valueOf(expected), String.valueOf(update));
+        return result != null && result == 1;
+    }
+
+    @Override
+    public void evict(Long commodityId) {
+        try {
+            redisTemplate.delete(key(commodityId));
+        } catch (Exception e) {
+            log.warn("移除库存失败 - 商品ID: {}", commodityId, e);
+        }
+    }
+
+    private static String key(Long commodityId) {
+        return KEY_PREFIX + commodityId;
+    }
+}
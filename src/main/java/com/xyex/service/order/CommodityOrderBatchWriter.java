@@ -0,0 +1,98 @@
+package com.xyex.service.order;
+
+import com.xyex.entity.model.CommodityOrder;
+import com.xyex.shared.enums.OrderConstant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * 订单多值 INSERT 写入
+ * <p>
+ * 一批订单拼成一条 {@code INSERT ... VALUES (...), (...)}，只走一次网络往返；
+ * 绕过了 MyBatis-Plus 的自动填充，审计字段需由调用方预先设置（ID 也需预先生成）。
+ * 超时取消同样走一次 JDBC 批量执行，每行带未支付守卫。
+ */
+@Component
+@RequiredArgsConstructor
+public class CommodityOrderBatchWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO commodity_order (id, userId, commodityId, buyNumber, "
+            + "reservedNumber, paymentAmount, payStatus, createTime, updateTime, isDelete, created_user_id, "
+            + "created_user_name, update_user_id, update_user_name, created_at, updated_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CANCEL_SQL = "UPDATE commodity_order SET payStatus = ?, updateTime = ?, updated_at = ?"
+            + " WHERE id = ? AND payStatus = ? AND isDelete = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入订单
+     *
+     * @param orders 订单列表
+     */
+    public void insert(List<CommodityOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        StringJoiner rows = new StringJoiner(", ", INSERT_PREFIX, "");
+        List<Object> args = new ArrayList<>(orders.size() * 16);
+        for (CommodityOrder order : orders) {
+            rows.add(ROW_PLACEHOLDERS);
+            args.add(order.getId());
+            args.add(order.getUserId());
+            args.add(order.getCommodityId());
+            args.add(order.getBuyNumber());
+            args.add(order.getReservedNumber() != null ? order.getReservedNumber() : 0);
+            args.add(order.getPaymentAmount());
+            args.add(order.getPayStatus());
+            args.add(order.getCreateTime());
+            args.add(order.getUpdateTime());
+            args.add(order.getIsDelete());
+            args.add(order.getCreatedUserId());
+            args.add(order.getCreatedUserName());
+            args.add(order.getUpdateUserId());
+            args.add(order.getUpdateUserName());
+            args.add(order.getCreatedAt());
+            args.add(order.getUpdatedAt());
+        }
+        jdbcTemplate.update(rows.toString(), args.toArray());
+    }
+
+    /**
+     * 批量取消未支付的订单
+     *
+     * @param ids 订单ID
+     * @return 实际取消的订单ID（已支付、已取消或已删除的订单被守卫跳过）
+     */
+    public Set<Long> cancel(List<Long> ids) {
+        Set<Long> cancelled = new HashSet<>();
+        if (ids.isEmpty()) {
+            return cancelled;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(CANCEL_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setInt(1, OrderConstant.PAY_STATUS_CANCELLED);
+            ps.setObject(2, now);
+            ps.setObject(3, now);
+            ps.setLong(4, id);
+            ps.setInt(5, OrderConstant.PAY_STATUS_UNPAID);
+        });
+        int[] rows = counts.length == 0 ? new int[0] : counts[0];
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != 0) {
+                cancelled.add(ids.get(i));
+            }
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,167 @@
+package com.xyex.service.order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 第 0 层每格一个 tick，第 i 层每格 wheelSize^i 个 tick；到期时间超出当前层一圈的任务放入上层，
+ * 上层的格子被转到时整体下放到下层，最终在第 0 层到期。调度、取消均为 O(1)，推进的代价只与经过的 tick 数
+ * 和到期任务数有关，与挂起的任务总数无关。超出最高层范围的任务先挂在最高层最远的格子，转到时重新放置。
+ * <p>
+ * 同一个 key 只保留一个到期时间，重复调度覆盖之前的。方法均为同步方法，由一个线程定时调用 {@link #advance}。
+ *
+ * @param <K> 任务键类型
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final Set<K>[][] buckets;
+    private final Map<K, Slot> index = new HashMap<>();
+
+    /**
+     * 已推进到的 tick（绝对值，即毫秒时间 / tickMillis）
+     */
+    private long currentTick;
+
+    /**
+     * 任务所在的格子
+     */
+    private record Slot(long deadlineTick, int level, int bucket) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("invalid timing wheel: tick=" + tickMillis
+                    + ", size=" + wheelSize + ", levels=" + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.buckets = new Set[levels][wheelSize];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * 调度任务，已到期的任务在下一次推进时返回
+     *
+     * @param key            任务键
+     * @param deadlineMillis 到期时间（毫秒时间戳）
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // 向上取整，保证不早于到期时间触发
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        place(key, deadlineTick);
+    }
+
+    /**
+     * 取消任务
+     *
+     * @param key 任务键
+     * @return 任务是否存在
+     */
+    public synchronized boolean cancel(K key) {
+        Slot slot = index.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        buckets[slot.level()][slot.bucket()].remove(key);
+        return true;
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的任务
+     *
+     * @param nowMillis 当前时间（毫秒时间戳）
+     * @return 到期的任务键
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // 先由高到低下放上层转到的格子，再处理第 0 层
+            long span = pow(levels - 1);
+            for (int level = levels - 1; level > 0; level--, span /= wheelSize) {
+                if (currentTick % span == 0) {
+                    cascade(level, (int) ((currentTick / span) % wheelSize), expired);
+                }
+            }
+            drain(0, (int) (currentTick % wheelSize), expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private void place(K key, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        long span = 1;
+        for (int level = 0; level < levels; level++, span *= wheelSize) {
+            if (delta < span * wheelSize) {
+                put(key, deadlineTick, level, (int) ((deadlineTick / span) % wheelSize));
+                return;
+            }
+        }
+        // 超出最高层范围：挂在最高层最远的格子，转到时重新放置
+        long top = pow(levels - 1);
+        put(key, deadlineTick, levels - 1, (int) ((currentTick / top + wheelSize - 1) % wheelSize));
+    }
+
+    private void put(K key, long deadlineTick, int level, int bucket) {
+        Set<K> keys = buckets[level][bucket];
+        if (keys == null) {
+            keys = new LinkedHashSet<>();
+            buckets[level][bucket] = keys;
+        }
+        keys.add(key);
+        index.put(key, new Slot(deadlineTick, level, bucket));
+    }
+
+    private void cascade(int level, int bucket, List<K> expired) {
+        Set<K> keys = buckets[level][bucket];
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        buckets[level][bucket] = null;
+        for (K key : keys) {
+            Slot slot = index.remove(key);
+            if (slot.deadlineTick() <= currentTick) {
+                expired.add(key);
+            } else {
+                place(key, slot.deadlineTick());
+            }
+        }
+    }
+
+    private void drain(int level, int bucket, List<K> expired) {
+        Set<K> keys = buckets[level][bucket];
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        buckets[level][bucket] = null;
+        for (K key : keys) {
+            index.remove(key);
+            expired.add(key);
+        }
+    }
+
+    private long pow(int exponent) {
+        long span = 1;
+        for (int i = 0; i < exponent; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+}
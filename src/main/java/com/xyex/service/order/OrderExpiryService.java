@@ -0,0 +1,158 @@
+package com.xyex.service.order;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xyex.entity.model.CommodityOrder;
+import com.xyex.mapper.CommodityOrderMapper;
+import com.xyex.service.inventory.InventoryService;
+import com.xyex.shared.enums.OrderConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 未支付订单超时取消
+ * <p>
+ * 每个未支付订单在 {@link HierarchicalTimingWheel} 中挂一个到期时间（创建时间 + 支付超时），
+ * 支付后取消。定时推进时间轮，到期的订单分批处理：每批一个事务，带未支付守卫批量取消订单，
+ * 再按商品汇总下单时预占的库存（reservedNumber，普通下单与秒杀均为购买数量）批量回补，不扫描订单表。
+ * 未预占库存的订单（加入该字段之前的历史订单）只取消，不回补。
+ * <p>
+ * 时间轮只在内存中，启动时按ID游标分页加载全部未支付订单重建；已过期的在第一次推进时处理。
+ * 多节点部署时每个节点都会调度全部未支付订单，取消的守卫保证只有一个节点回补库存。
+ */
+@Slf4j
+@Component
+public class OrderExpiryService {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    /**
+     * 取消失败的订单重新调度的延迟
+     */
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+
+    private final CommodityOrderMapper commodityOrderMapper;
+    private final CommodityOrderBatchWriter batchWriter;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final long payTimeoutMillis;
+    private final int batchSize;
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    public OrderExpiryService(CommodityOrderMapper commodityOrderMapper, CommodityOrderBatchWriter batchWriter,
+                              InventoryService inventoryService, TransactionTemplate transactionTemplate,
+                              @Value("${commodity.order.pay-timeout:1800}") long payTimeoutSeconds,
+                              @Value("${commodity.order.expiry-tick:1000}") long tickMillis,
+                              @Value("${commodity.order.expiry-batch-size:500}") int batchSize) {
+        this.commodityOrderMapper = commodityOrderMapper;
+        this.batchWriter = batchWriter;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.payTimeoutMillis = payTimeoutSeconds * 1000;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    /**
+     * 调度订单的超时取消
+     *
+     * @param order 未支付的订单
+     */
+    public void schedule(CommodityOrder order) {
+        wheel.schedule(order.getId(), toMillis(order.getCreateTime()) + payTimeoutMillis);
+    }
+
+    /**
+     * 订单已支付，取消超时调度
+     *
+     * @param orderId 订单ID
+     */
+    public void cancel(Long orderId) {
+        wheel.cancel(orderId);
+    }
+
+    /**
+     * 从数据库重建时间轮
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = Long.MIN_VALUE;
+        int total = 0;
+        while (true) {
+            List<CommodityOrder> page = commodityOrderMapper.selectList(new LambdaQueryWrapper<CommodityOrder>()
+                    .select(CommodityOrder::getId, CommodityOrder::getCreateTime)
+                    .eq(CommodityOrder::getPayStatus, OrderConstant.PAY_STATUS_UNPAID)
+                    .eq(CommodityOrder::getIsDelete, 0)
+                    .gt(CommodityOrder::getId, lastId)
+                    .orderByAsc(CommodityOrder::getId)
+                    .last("LIMIT " + REBUILD_PAGE_SIZE));
+            page.forEach(this::schedule);
+            total += page.size();
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        log.info("未支付订单超时调度已重建 - 订单数: {}, 耗时: {}ms", total, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 推进时间轮，分批取消到期的订单
+     */
+    @Scheduled(fixedDelayString = "${commodity.order.expiry-tick:1000}")
+    public void tick() {
+        List<Long> expired = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<Long> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                expire(batch);
+            } catch (Exception e) {
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+                log.error("超时订单取消失败，稍后重试 - 订单数: {}", batch.size(), e);
+            }
+        }
+    }
+
+    private void expire(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<CommodityOrder> orders = commodityOrderMapper.selectList(new LambdaQueryWrapper<CommodityOrder>()
+                    .select(CommodityOrder::getId, CommodityOrder::getCommodityId, CommodityOrder::getReservedNumber)
+                    .in(CommodityOrder::getId, ids)
+                    .eq(CommodityOrder::getPayStatus, OrderConstant.PAY_STATUS_UNPAID)
+                    .eq(CommodityOrder::getIsDelete, 0));
+            if (orders.isEmpty()) {
+                return;
+            }
+            Set<Long> cancelled = batchWriter.cancel(orders.stream().map(CommodityOrder::getId).toList());
+            Map<Long, Long> restock = new HashMap<>();
+            for (CommodityOrder order : orders) {
+                Integer reserved = order.getReservedNumber();
+                if (cancelled.contains(order.getId()) && reserved != null && reserved > 0) {
+                    restock.merge(order.getCommodityId(), reserved.longValue(), Long::sum);
+                }
+            }
+            inventoryService.restock(restock);
+            log.info("超时未支付订单已取消 - 订单数: {}, 回补商品数: {}", cancelled.size(), restock.size());
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis()
+                : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,280 @@
+package com.xyex.service.order;
+
+import com.xyex.entity.model.CommodityOrder;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.shared.utils.SessionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 订单写入流水线（组提交）
+ * <p>
+ * 请求线程把校验后的订单放入有界环形队列并等待结果；单个写线程取出队首订单后，
+ * 在 linger 时间内继续收集，凑满 batch-size 或超时即以一条多值 INSERT、一次提交写入。
+ * 并发下单时多次提交的 fsync 合并为一次，空闲时单条订单最多多等 linger 毫秒。
+ * <p>
+ * 队列满时直接拒绝（背压），不会无限堆积；整批写入失败时逐条重试，只让出错的订单失败。
+ * <p>
+ * 等待超时时先从队列中撤回订单：撤回成功说明订单不会再写入，按拒绝处理；
+ * 已被写线程取走则继续等待写入结果，调用方拿到的成败总是与数据库一致。
+ */
+@Slf4j
+@Component
+public class OrderIngestionPipeline {
+
+    private final CommodityOrderBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long submitTimeoutMillis;
+    private final BlockingQueue<PendingOrder> queue;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * 等待写入的订单
+     *
+     * @param order      订单
+     * @param enqueuedAt 入队时间（纳秒）
+     * @param result     写入结果
+     */
+    private record PendingOrder(CommodityOrder order, long enqueuedAt, CompletableFuture<Void> result) {
+    }
+
+    /**
+     * 写入统计
+     *
+     * @param queueDepth        当前排队订单数
+     * @param queueCapacity     队列容量
+     * @param batchSize         单批上限
+     * @param batches           已提交批次数
+     * @param orders            已写入订单数
+     * @param failures          写入失败订单数
+     * @param rejections        队列满或排队超时被拒绝的订单数
+     * @param averageBatchSize  平均每批订单数
+     * @param lastBatchSize     最近一批订单数
+     * @param averageWaitMillis 订单从入队到提交的平均耗时
+     */
+    public record Stats(int queueDepth, int queueCapacity, int batchSize, long batches, long orders, long failures,
+                        long rejections, double averageBatchSize, int lastBatchSize, double averageWaitMillis) {
+    }
+
+    public OrderIngestionPipeline(CommodityOrderBatchWriter batchWriter, TransactionTemplate transactionTemplate,
+                                  @Value("${commodity.order.batch-size:200}") int batchSize,
+                                  @Value("${commodity.order.linger:2}") long lingerMillis,
+                                  @Value("${commodity.order.queue-capacity:4096}") int queueCapacity,
+                                  @Value("${commodity.order.submit-timeout:5000}") long submitTimeoutMillis) {
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.submitTimeoutMillis = submitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "order-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 停止接收新订单，写完队列中剩余的订单后退出
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * 提交订单并等待写入完成
+     * 审计字段在请求线程填充（写线程没有登录上下文），订单ID需预先生成
+     *
+     * @param order 订单
+     * @throws BusinessException 队列已满、排队超时（订单未写入）或写入失败时为 5xx，此时订单一定未写入，可以重试；
+     *                           写入结果未知时为 409
+     */
+    public void submit(CommodityOrder order) {
+        fillAuditFields(order);
+        PendingOrder pending = new PendingOrder(order, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejections.increment();
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "下单人数过多，请稍后重试");
+        }
+        try {
+            try {
+                pending.result().get(submitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                withdrawOrAwait(pending);
+            }
+        } catch (ExecutionException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建订单失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queue.remove(pending)) {
+                throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "下单人数过多，请稍后重试");
+            }
+            // 已被写线程取走，写入结果未知：不返回 5xx，幂等键会保存该结果，重试不会再次下单
+            log.warn("等待订单写入被中断，结果未知 - 订单ID: {}", order.getId());
+            throw new BusinessException(ErrorCode.CONFLICT, "下单结果未确认，请稍后在订单列表中确认");
+        }
+    }
+
+    /**
+     * 在调用方的事务中直接写入订单，不经过队列
+     * 用于订单必须与其他写操作（例如秒杀的库存扣减）原子提交的场景
+     *
+     * @param order 订单
+     */
+    public void insertInCurrentTransaction(CommodityOrder order) {
+        fillAuditFields(order);
+        batchWriter.insert(List.of(order));
+    }
+
+    private static void fillAuditFields(CommodityOrder order) {
+        String userAccount = SessionUtil.getUserAccount();
+        String userName = SessionUtil.getUserName();
+        LocalDateTime now = LocalDateTime.now();
+        order.setCreatedUserId(userAccount);
+        order.setCreatedUserName(userName);
+        order.setUpdateUserId(userAccount);
+        order.setUpdateUserName(userName);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+    }
+
+    /**
+     * 等待超时：仍在队列中则撤回并拒绝；已被写线程取走则等待写入结果，
+     * 不能提前返回，否则调用方会按失败回滚库存或重试，而订单随后仍被写入
+     */
+    private void withdrawOrAwait(PendingOrder pending) throws ExecutionException, InterruptedException {
+        if (queue.remove(pending)) {
+            rejections.increment();
+            log.warn("订单排队超时，已撤回 - 订单ID: {}", pending.order().getId());
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "下单人数过多，请稍后重试");
+        }
+        log.warn("订单写入等待超时，继续等待写入结果 - 订单ID: {}", pending.order().getId());
+        pending.result().get();
+    }
+
+    public Stats stats() {
+        long batchCount = batches.sum();
+        long orderCount = orders.sum();
+        return new Stats(queue.size(), queue.size() + queue.remainingCapacity(), batchSize, batchCount, orderCount,
+                failures.sum(), rejections.sum(), batchCount == 0 ? 0 : (double) orderCount / batchCount,
+                lastBatchSize.get(), orderCount == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / orderCount);
+    }
+
+    private void drainLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 已取出的订单不会再写入，通知等待方失败
+                batch.forEach(pending -> fail(pending, e));
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("订单写线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 在 linger 时间内继续收集订单，直到凑满一批
+     */
+    private void collect(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingOrder> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batchWriter.insert(batch.stream().map(PendingOrder::order).toList()));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.warn("订单批量写入失败，逐条重试 - 订单数: {}", batch.size(), e);
+            for (PendingOrder pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batchWriter.insert(List.of(pending.order())));
+                    complete(List.of(pending));
+                } catch (Exception single) {
+                    fail(pending, single);
+                }
+            }
+            return;
+        }
+        complete(batch);
+    }
+
+    private void complete(List<PendingOrder> written) {
+        long now = System.nanoTime();
+        batches.increment();
+        orders.add(written.size());
+        lastBatchSize.set(written.size());
+        for (PendingOrder pending : written) {
+            waitNanos.add(now - pending.enqueuedAt());
+            pending.result().complete(null);
+        }
+    }
+
+    private void fail(PendingOrder pending, Exception e) {
+        failures.increment();
+        log.error("订单写入失败 - 订单ID: {}", pending.order().getId(), e);
+        pending.result().completeExceptionally(e);
+    }
+}
@@ -0,0 +1,186 @@
+package com.xyex.service.recommend;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 商品共现计数模型（非线程安全，由 {@link SimilarCommodityIndex} 串行访问）
+ * <p>
+ * 商品ID映射为连续序号，每个商品保存一张 序号 -> 共现次数 的稀疏表，
+ * 全部使用基本类型集合，避免装箱。相似度为余弦相似度：
+ * {@code co(i, j) / sqrt(users(i) * users(j))}。
+ */
+final class CooccurrenceModel {
+
+    /**
+     * 单个用户参与共现统计的最大商品数，超出后不再产生新的共现（避免异常账号放大计算量）
+     */
+    private final int maxUserItems;
+
+    private final Long2IntOpenHashMap ordinals = new Long2IntOpenHashMap();
+    private final LongArrayList ids = new LongArrayList();
+
+    /**
+     * 序号 -> 交互过的用户数
+     */
+    private final IntArrayList userCounts = new IntArrayList();
+
+    /**
+     * 序号 -> (序号 -> 共现次数)
+     */
+    private final List<Int2IntOpenHashMap> cooccurrence = new ArrayList<>();
+
+    /**
+     * 用户ID -> 交互过的商品序号
+     */
+    private final Long2ObjectOpenHashMap<IntOpenHashSet> userItems = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 相似商品
+     *
+     * @param ids          商品ID，按相似度降序
+     * @param similarities 相似度
+     */
+    record Neighbours(long[] ids, double[] similarities) {
+    }
+
+    CooccurrenceModel(int maxUserItems) {
+        this.maxUserItems = maxUserItems;
+        this.ordinals.defaultReturnValue(-1);
+    }
+
+    /**
+     * 记录一次交互，同一用户对同一商品的重复交互只计一次
+     *
+     * @param userId      用户ID
+     * @param commodityId 商品ID
+     * @param touched     相似度可能变化的商品序号
+     */
+    void add(long userId, long commodityId, IntConsumer touched) {
+        int item = ordinal(commodityId);
+        IntOpenHashSet items = userItems.computeIfAbsent(userId, k -> new IntOpenHashSet());
+        if (items.contains(item) || items.size() >= maxUserItems) {
+            return;
+        }
+        userCounts.set(item, userCounts.getInt(item) + 1);
+        touched.accept(item);
+        Int2IntOpenHashMap row = cooccurrence.get(item);
+        for (IntIterator it = items.iterator(); it.hasNext(); ) {
+            int other = it.nextInt();
+            row.addTo(other, 1);
+            cooccurrence.get(other).addTo(item, 1);
+            touched.accept(other);
+        }
+        items.add(item);
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    long idOf(int ordinal) {
+        return ids.getLong(ordinal);
+    }
+
+    /**
+     * 计算商品的前 n 个相似商品
+     *
+     * @param ordinal  商品序号
+     * @param n        个数
+     * @param excluded 需要排除的商品ID
+     * @return 相似商品
+     */
+    Neighbours topN(int ordinal, int n, LongPredicate excluded) {
+        int[] heapItems = new int[n];
+        double[] heapScores = new double[n];
+        int size = 0;
+        double selfUsers = userCounts.getInt(ordinal);
+        for (var it = cooccurrence.get(ordinal).int2IntEntrySet().fastIterator(); it.hasNext(); ) {
+            Int2IntMap.Entry entry = it.next();
+            int other = entry.getIntKey();
+            if (excluded.test(ids.getLong(other))) {
+                continue;
+            }
+            double score = entry.getIntValue() / Math.sqrt(selfUsers * userCounts.getInt(other));
+            if (size < n) {
+                heapItems[size] = other;
+                heapScores[size] = score;
+                siftUp(heapItems, heapScores, size++);
+            } else if (score > heapScores[0]) {
+                heapItems[0] = other;
+                heapScores[0] = score;
+                siftDown(heapItems, heapScores, size);
+            }
+        }
+        // 小顶堆依次弹出即为升序，倒序写入结果
+        long[] resultIds = new long[size];
+        double[] resultScores = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            resultIds[i] = ids.getLong(heapItems[0]);
+            resultScores[i] = heapScores[0];
+            heapItems[0] = heapItems[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapItems, heapScores, i);
+        }
+        return new Neighbours(resultIds, resultScores);
+    }
+
+    private int ordinal(long commodityId) {
+        int ordinal = ordinals.get(commodityId);
+        if (ordinal < 0) {
+            ordinal = ids.size();
+            ordinals.put(commodityId, ordinal);
+            ids.add(commodityId);
+            userCounts.add(0);
+            cooccurrence.add(new Int2IntOpenHashMap());
+        }
+        return ordinal;
+    }
+
+    private static void siftUp(int[] items, double[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] <= scores[i]) {
+                break;
+            }
+            swap(items, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] items, double[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[child]) {
+                break;
+            }
+            swap(items, scores, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] items, double[] scores, int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
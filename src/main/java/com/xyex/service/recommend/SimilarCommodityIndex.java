@@ -0,0 +1,158 @@
+package com.xyex.service.recommend;
+
+import com.xyex.entity.res.SimilarItemVO;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import com.xyex.service.event.CommodityInteractionEvent;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 相似商品索引（基于用户共现）
+ * <p>
+ * 收藏、好评（不低于 {@link #MIN_POSITIVE_SCORE} 分）和下单都视为用户对商品的一次正向交互。
+ * 启动时与每日定时任务从三张表全量构建 {@link CooccurrenceModel}，之后由
+ * {@link CommodityInteractionEvent} 增量累加：新交互只更新该用户交互过的商品之间的共现，
+ * 并只为这些商品重新计算前 N 个相似商品。其他商品因用户数变化产生的细微偏差由每日全量构建修正。
+ * 读取只访问内存中的结果表。
+ */
+@Slf4j
+@Component
+public class SimilarCommodityIndex {
+
+    /**
+     * 计为正向交互的最低评分
+     */
+    public static final int MIN_POSITIVE_SCORE = 3;
+
+    private final CommodityMapper commodityMapper;
+    private final int topN;
+    private final int maxUserItems;
+
+    /**
+     * 待应用的交互：{用户ID, 商品ID}
+     */
+    private final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已删除的商品，读取与计算时排除
+     */
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 共现模型，只在持有 this 锁时访问
+     */
+    private CooccurrenceModel model;
+
+    private volatile Map<Long, CooccurrenceModel.Neighbours> neighbours = new ConcurrentHashMap<>();
+
+    public SimilarCommodityIndex(CommodityMapper commodityMapper,
+                                 @Value("${commodity.similar.top-n:20}") int topN,
+                                 @Value("${commodity.similar.max-user-items:200}") int maxUserItems) {
+        this.commodityMapper = commodityMapper;
+        this.topN = topN;
+        this.maxUserItems = maxUserItems;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * 全量构建：流式读取全部交互，计算每个商品的相似商品后整体替换
+     */
+    @Scheduled(cron = "${commodity.similar.rebuild-cron:0 30 4 * * *}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            CooccurrenceModel next = new CooccurrenceModel(maxUserItems);
+            long[] interactions = {0};
+            commodityMapper.streamInteractions(MIN_POSITIVE_SCORE, context -> {
+                Map<String, Object> row = context.getResultObject();
+                next.add(((Number) row.get("userId")).longValue(), ((Number) row.get("commodityId")).longValue(),
+                        ordinal -> {
+                        });
+                interactions[0]++;
+            });
+            Map<Long, CooccurrenceModel.Neighbours> computed = new ConcurrentHashMap<>();
+            for (int ordinal = 0; ordinal < next.size(); ordinal++) {
+                computed.put(next.idOf(ordinal), next.topN(ordinal, topN, deleted::contains));
+            }
+            model = next;
+            neighbours = computed;
+            log.info("相似商品索引构建完成 - 交互数: {}, 商品数: {}, 耗时: {}ms",
+                    interactions[0], next.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("相似商品索引构建失败", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteraction(CommodityInteractionEvent event) {
+        if (event.userId() != null && event.commodityId() != null) {
+            pending.add(new long[]{event.userId(), event.commodityId()});
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() == CommodityChangedEvent.Type.DELETE) {
+            deleted.add(event.commodityId());
+            neighbours.remove(event.commodityId());
+        }
+    }
+
+    /**
+     * 定时应用增量交互，只重新计算受影响的商品
+     */
+    @Scheduled(fixedDelayString = "${commodity.similar.update-interval:5000}")
+    public synchronized void applyPending() {
+        if (model == null || pending.isEmpty()) {
+            return;
+        }
+        IntOpenHashSet touched = new IntOpenHashSet();
+        long[] interaction;
+        while ((interaction = pending.poll()) != null) {
+            model.add(interaction[0], interaction[1], touched::add);
+        }
+        Map<Long, CooccurrenceModel.Neighbours> current = neighbours;
+        touched.forEach(ordinal -> current.put(model.idOf(ordinal), model.topN(ordinal, topN, deleted::contains)));
+    }
+
+    /**
+     * 相似商品
+     *
+     * @param commodityId 商品ID
+     * @param limit       条数（不超过 top-n）
+     * @return 按相似度降序的商品
+     */
+    public List<SimilarItemVO> similar(Long commodityId, int limit) {
+        CooccurrenceModel.Neighbours found = neighbours.get(commodityId);
+        if (found == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<SimilarItemVO> result = new ArrayList<>(Math.min(limit, found.ids().length));
+        for (int i = 0; i < found.ids().length && result.size() < limit; i++) {
+            if (!deleted.contains(found.ids()[i])) {
+                result.add(new SimilarItemVO(found.ids()[i], found.similarities()[i]));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package com.xyex.service.search;
+
+import cn.hutool.core.convert.Convert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于二元切分（bigram）的内存倒排索引
+ * <p>
+ * 中文没有天然分词边界，这里对文本做重叠二元切分（"显示器" -> "显示"、"示器"），
+ * 同时保留单字词项以支持单字查询。查询时对词项倒排表求交集得到候选集，
+ * 再用原文做一次包含校验，语义与 {@code LIKE '%kw%'} 保持一致。
+ * <p>
+ * 写操作串行化，读操作无锁。
+ */
+public class BigramIndex {
+
+    /**
+     * 词项 -> 文档ID集合
+     */
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 文档ID -> 归一化后的原文
+     */
+    private final Map<Long, String> documents = new ConcurrentHashMap<>();
+
+    /**
+     * 写入（或覆盖）文档
+     *
+     * @param id   文档ID
+     * @param text 文档文本
+     */
+    public synchronized void put(Long id, String text) {
+        remove(id);
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        documents.put(id, normalized);
+        for (String token : tokenize(normalized)) {
+            postings.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * 移除文档
+     *
+     * @param id 文档ID
+     */
+    public synchronized void remove(Long id) {
+        String old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String token : tokenize(old)) {
+            postings.computeIfPresent(token, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * 查询包含关键词的文档
+     *
+     * @param query 关键词
+     * @return 命中的文档ID集合
+     */
+    public Set<Long> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> tokens = queryTokens(normalized);
+        List<Set<Long>> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        // 从最短的倒排表开始求交集
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            boolean hit = true;
+            for (int i = 1; i < lists.size() && hit; i++) {
+                hit = lists.get(i).contains(id);
+            }
+            if (!hit) {
+                continue;
+            }
+            // 二元切分只能保证词项都出现，需用原文校验连续性
+            String doc = documents.get(id);
+            if (doc != null && doc.contains(normalized)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前索引的文档数
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * 文本归一化：全角转半角、转小写、去除首尾空白
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Convert.toDBC(text).toLowerCase().trim();
+    }
+
+    /**
+     * 文档切分：所有非空白单字 + 不跨越空白的相邻二元组
+     */
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            tokens.add(String.valueOf(c));
+            if (i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                tokens.add(text.substring(i, i + 2));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 查询切分：优先使用二元组，只有单字时退化为单字词项
+     */
+    private static Set<String> queryTokens(String query) {
+        Set<String> bigrams = new LinkedHashSet<>();
+        Set<String> unigrams = new LinkedHashSet<>();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            unigrams.add(String.valueOf(c));
+            if (i + 1 < query.length() && !Character.isWhitespace(query.charAt(i + 1))) {
+                bigrams.add(query.substring(i, i + 2));
+            }
+        }
+        return bigrams.isEmpty() ? unigrams : bigrams;
+    }
+}
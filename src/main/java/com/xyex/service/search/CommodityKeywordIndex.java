@@ -0,0 +1,200 @@
+package com.xyex.service.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.req.CommodityQueryDTO;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品关键词内存索引
+ * <p>
+ * 启动时从 {@link CommodityMapper} 全量构建，之后由 {@link CommodityChangedEvent} 增量维护。
+ * 关键词查询在内存中完成匹配、过滤与排序，数据库只需按当前页的ID回表。
+ * 关键词为纯字母时同时按商品名称的全拼与首字母匹配（见 {@link PinyinText}），结果取并集。
+ * 索引未就绪时 {@link #isReady()} 返回 false，调用方应退回 SQL 查询。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommodityKeywordIndex {
+
+    private final CommodityMapper commodityMapper;
+
+    /**
+     * 商品名称 + 简介的倒排索引
+     */
+    private final BigramIndex textIndex = new BigramIndex();
+
+    /**
+     * 商品名称拼音（全拼 + 首字母）的倒排索引
+     */
+    private final BigramIndex pinyinIndex = new BigramIndex();
+
+    /**
+     * 过滤与排序所需的商品元数据
+     */
+    private final Map<Long, IndexedCommodity> metadata = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 索引中的商品元数据
+     *
+     * @param id              商品ID
+     * @param commodityTypeId 分类ID
+     * @param price           价格
+     * @param isListed        上架状态
+     * @param createTime      创建时间（毫秒）
+     */
+    public record IndexedCommodity(Long id, Long commodityTypeId, BigDecimal price, Integer isListed, long createTime) {
+    }
+
+    /**
+     * 应用启动后全量构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            LambdaQueryWrapper<Commodity> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Commodity::getId, Commodity::getCommodityName, Commodity::getCommodityDescription,
+                            Commodity::getCommodityTypeId, Commodity::getPrice, Commodity::getIsListed,
+                            Commodity::getCreateTime)
+                    .eq(Commodity::getIsDelete, 0);
+            List<Commodity> commodities = commodityMapper.selectList(wrapper);
+            commodities.forEach(this::index);
+            ready = true;
+            log.info("商品关键词索引构建完成 - 商品数: {}, 耗时: {}ms", commodities.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("商品关键词索引构建失败，关键词查询将退回数据库", e);
+        }
+    }
+
+    /**
+     * 商品变更后增量更新索引
+     * 先于 {@link com.xyex.service.cache.CatalogVersions} 执行，ETag 版本号递增时索引已是新数据
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() == CommodityChangedEvent.Type.DELETE) {
+            remove(event.commodityId());
+        } else if (event.type() == CommodityChangedEvent.Type.UPSERT) {
+            Integer isDelete = event.snapshot().getIsDelete();
+            if (isDelete != null && isDelete == 1) {
+                remove(event.commodityId());
+            } else {
+                index(event.snapshot());
+            }
+        }
+    }
+
+    /**
+     * 按查询条件在索引中检索，结果按 (创建时间, id) 倒序（与 SQL 查询一致）
+     *
+     * @param queryDTO 查询条件（keyword 不能为空）
+     * @return 命中的商品
+     */
+    public List<IndexedCommodity> search(CommodityQueryDTO queryDTO) {
+        Set<Long> hits = searchIds(queryDTO.getKeyword());
+        List<IndexedCommodity> matched = new ArrayList<>(hits.size());
+        for (Long id : hits) {
+            IndexedCommodity doc = metadata.get(id);
+            if (doc != null && matches(doc, queryDTO)) {
+                matched.add(doc);
+            }
+        }
+        matched.sort(Comparator.comparingLong(IndexedCommodity::createTime)
+                .thenComparing(IndexedCommodity::id)
+                .reversed());
+        return matched;
+    }
+
+    /**
+     * 只做关键词匹配（原文 + 拼音），不应用其他条件
+     *
+     * @param keyword 关键词
+     * @return 命中的商品ID
+     */
+    public Set<Long> searchIds(String keyword) {
+        Set<Long> hits = textIndex.search(keyword);
+        if (!PinyinText.isPinyinQuery(keyword)) {
+            return hits;
+        }
+        Set<Long> pinyinHits = pinyinIndex.search(PinyinText.compact(keyword));
+        if (pinyinHits.isEmpty()) {
+            return hits;
+        }
+        Set<Long> merged = new HashSet<>(hits);
+        merged.addAll(pinyinHits);
+        return merged;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void index(Commodity commodity) {
+        if (commodity == null || commodity.getId() == null) {
+            return;
+        }
+        String text = commodity.getCommodityName() == null ? "" : commodity.getCommodityName();
+        if (commodity.getCommodityDescription() != null) {
+            text = text + " " + commodity.getCommodityDescription();
+        }
+        // 新建商品的创建时间由数据库默认值生成（秒级精度）
+        LocalDateTime createTime = commodity.getCreateTime() != null
+                ? commodity.getCreateTime() : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        metadata.put(commodity.getId(), new IndexedCommodity(commodity.getId(), commodity.getCommodityTypeId(),
+                commodity.getPrice(), commodity.getIsListed(),
+                createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        textIndex.put(commodity.getId(), text);
+        pinyinIndex.put(commodity.getId(), PinyinText.of(commodity.getCommodityName()));
+    }
+
+    private void remove(Long id) {
+        textIndex.remove(id);
+        pinyinIndex.remove(id);
+        metadata.remove(id);
+    }
+
+    /**
+     * 与 {@link CommodityQueryDTO#createQuery()} 中除关键词以外的条件保持一致
+     */
+    private static boolean matches(IndexedCommodity doc, CommodityQueryDTO queryDTO) {
+        if (queryDTO.getId() != null && !queryDTO.getId().equals(doc.id())) {
+            return false;
+        }
+        if (queryDTO.getCommodityTypeId() != null && !queryDTO.getCommodityTypeId().equals(doc.commodityTypeId())) {
+            return false;
+        }
+        if (queryDTO.getMinPrice() != null && (doc.price() == null || doc.price().compareTo(queryDTO.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (queryDTO.getMaxPrice() != null && (doc.price() == null || doc.price().compareTo(queryDTO.getMaxPrice()) > 0)) {
+            return false;
+        }
+        return queryDTO.getIsListed() == null || queryDTO.getIsListed().equals(doc.isListed());
+    }
+}
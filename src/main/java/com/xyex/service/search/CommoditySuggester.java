@@ -0,0 +1,173 @@
+package com.xyex.service.search;
+
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.res.CommoditySuggestVO;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.service.event.CommodityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品名称前缀补全
+ * <p>
+ * 只收录已上架的商品，同名商品合并为一个词条，权重为各商品热度之和
+ * （浏览量 + 收藏量 * favourite-weight）。商品写路径发布的 {@link CommodityChangedEvent}
+ * 只标记变更的商品，定时任务按ID回表刷新后整体重建 {@link PrefixSuggestIndex} 并原子替换，
+ * 查询只访问内存快照。
+ */
+@Slf4j
+@Component
+public class CommoditySuggester {
+
+    /**
+     * 回表刷新时单次查询的最大商品数
+     */
+    private static final int RELOAD_CHUNK_SIZE = 500;
+
+    private final CommodityMapper commodityMapper;
+    private final long favouriteWeight;
+
+    /**
+     * 已上架商品：商品ID -> 名称与热度
+     */
+    private final Map<Long, Source> sources = new ConcurrentHashMap<>();
+
+    /**
+     * 待回表刷新的商品ID
+     */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile PrefixSuggestIndex index = PrefixSuggestIndex.empty();
+
+    private volatile boolean ready = false;
+
+    private record Source(String name, long weight) {
+    }
+
+    public CommoditySuggester(CommodityMapper commodityMapper,
+                              @Value("${commodity.suggest.favourite-weight:5}") long favouriteWeight) {
+        this.commodityMapper = commodityMapper;
+        this.favouriteWeight = favouriteWeight;
+    }
+
+    /**
+     * 应用启动后全量加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try {
+            List<Commodity> commodities = commodityMapper.selectList(columns()
+                    .eq(Commodity::getIsDelete, 0)
+                    .eq(Commodity::getIsListed, 1));
+            commodities.forEach(this::apply);
+            rebuild();
+            ready = true;
+            log.info("商品补全索引构建完成 - 商品数: {}, 词条数: {}, 耗时: {}ms",
+                    commodities.size(), index.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("商品补全索引构建失败", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        dirty.add(event.commodityId());
+    }
+
+    /**
+     * 定时回表刷新变更的商品并重建索引
+     */
+    @Scheduled(fixedDelayString = "${commodity.suggest.refresh-interval:2000}")
+    public void refresh() {
+        if (!ready || dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        try {
+            for (List<Long> chunk : ListUtil.partition(ids, RELOAD_CHUNK_SIZE)) {
+                Map<Long, Commodity> rows = new HashMap<>();
+                commodityMapper.selectList(columns().in(Commodity::getId, chunk))
+                        .forEach(commodity -> rows.put(commodity.getId(), commodity));
+                for (Long id : chunk) {
+                    Commodity commodity = rows.get(id);
+                    if (commodity == null) {
+                        sources.remove(id);
+                    } else {
+                        apply(commodity);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // 放回变更标记，下个周期重试
+            dirty.addAll(ids);
+            log.error("商品补全索引刷新失败，商品数: {}", ids.size(), e);
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * 前缀补全
+     *
+     * @param prefix 用户输入
+     * @param limit  条数（不超过 {@link PrefixSuggestIndex#MAX_LIMIT}）
+     * @return 按热度降序的建议
+     */
+    public List<CommoditySuggestVO> suggest(String prefix, int limit) {
+        String key = BigramIndex.normalize(prefix);
+        List<CommoditySuggestVO> result = new ArrayList<>(Math.min(Math.max(limit, 0), PrefixSuggestIndex.MAX_LIMIT));
+        index.suggest(key, limit, term -> result.add(new CommoditySuggestVO(term.text(), term.id(), term.weight())));
+        return result;
+    }
+
+    private void apply(Commodity commodity) {
+        boolean visible = commodity.getCommodityName() != null
+                && !Integer.valueOf(1).equals(commodity.getIsDelete())
+                && Integer.valueOf(1).equals(commodity.getIsListed());
+        if (!visible) {
+            sources.remove(commodity.getId());
+            return;
+        }
+        long views = commodity.getViewNum() == null ? 0 : commodity.getViewNum();
+        long favours = commodity.getFavourNum() == null ? 0 : commodity.getFavourNum();
+        sources.put(commodity.getId(), new Source(commodity.getCommodityName(), views + favours * favouriteWeight));
+    }
+
+    /**
+     * 同名商品合并为一个词条后重建索引
+     */
+    private void rebuild() {
+        Map<String, PrefixSuggestIndex.Term> terms = new HashMap<>();
+        sources.forEach((id, source) -> {
+            String key = BigramIndex.normalize(source.name());
+            terms.merge(key, new PrefixSuggestIndex.Term(key, source.name().trim(), id, source.weight()),
+                    (a, b) -> {
+                        PrefixSuggestIndex.Term top = a.weight() >= b.weight() ? a : b;
+                        return new PrefixSuggestIndex.Term(key, top.text(), top.id(), a.weight() + b.weight());
+                    });
+        });
+        index = PrefixSuggestIndex.build(new ArrayList<>(terms.values()));
+    }
+
+    private static LambdaQueryWrapper<Commodity> columns() {
+        return new LambdaQueryWrapper<Commodity>()
+                .select(Commodity::getId, Commodity::getCommodityName, Commodity::getIsListed,
+                        Commodity::getIsDelete, Commodity::getViewNum, Commodity::getFavourNum);
+    }
+}
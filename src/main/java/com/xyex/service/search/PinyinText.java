@@ -0,0 +1,157 @@
+package com.xyex.service.search;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拼音检索文本
+ * <p>
+ * 把商品名称转换为"全拼 + 首字母"的检索文本（如 显示器 -> "xianshiqi xsq"），
+ * 多音字展开为多个读音组合，组合数超过上限后其余多音字只取第一个读音。
+ * 非汉字的字母、数字原样保留，空白与标点丢弃。
+ */
+public final class PinyinText {
+
+    /**
+     * 单个名称最多展开的读音组合数
+     */
+    private static final int MAX_VARIANTS = 4;
+
+    /**
+     * 拼音查询的最小长度，单个字母命中面过大
+     */
+    private static final int MIN_QUERY_LENGTH = 2;
+
+    private static final String[] NO_READINGS = new String[0];
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    /**
+     * 汉字 -> 去重读音（pinyin4j 每次转换都要做格式化，按字缓存）
+     */
+    private static final Map<Character, String[]> READINGS = new ConcurrentHashMap<>();
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinText() {
+    }
+
+    /**
+     * 生成检索文本：各读音组合的全拼与首字母，以空格分隔
+     *
+     * @param text 原文
+     * @return 检索文本，原文不含汉字时返回空串
+     */
+    public static String of(String text) {
+        String normalized = BigramIndex.normalize(text);
+        List<StringBuilder> fulls = new ArrayList<>();
+        List<StringBuilder> initials = new ArrayList<>();
+        fulls.add(new StringBuilder());
+        initials.add(new StringBuilder());
+        boolean hasHan = false;
+
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            String[] readings = readings(c);
+            if (readings.length == 0) {
+                if (Character.isLetterOrDigit(c)) {
+                    fulls.forEach(sb -> sb.append(c));
+                    initials.forEach(sb -> sb.append(c));
+                }
+                continue;
+            }
+            hasHan = true;
+            if (readings.length == 1 || fulls.size() * readings.length > MAX_VARIANTS) {
+                fulls.forEach(sb -> sb.append(readings[0]));
+                initials.forEach(sb -> sb.append(readings[0].charAt(0)));
+                continue;
+            }
+            // 多音字：每个已有组合按读音展开
+            List<StringBuilder> nextFulls = new ArrayList<>();
+            List<StringBuilder> nextInitials = new ArrayList<>();
+            for (int v = 0; v < fulls.size(); v++) {
+                for (String reading : readings) {
+                    nextFulls.add(new StringBuilder(fulls.get(v)).append(reading));
+                    nextInitials.add(new StringBuilder(initials.get(v)).append(reading.charAt(0)));
+                }
+            }
+            fulls = nextFulls;
+            initials = nextInitials;
+        }
+        if (!hasHan) {
+            return "";
+        }
+
+        Set<String> forms = new LinkedHashSet<>();
+        fulls.forEach(sb -> forms.add(sb.toString()));
+        initials.forEach(sb -> forms.add(sb.toString()));
+        return String.join(" ", forms);
+    }
+
+    /**
+     * 是否按拼音检索：去除空白后全部为 ASCII 字母且长度不小于 2
+     *
+     * @param keyword 关键词
+     * @return 是否为拼音查询
+     */
+    public static boolean isPinyinQuery(String keyword) {
+        String compact = compact(keyword);
+        if (compact.length() < MIN_QUERY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < compact.length(); i++) {
+            char c = compact.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 归一化并去除空白（"xian shi qi" -> "xianshiqi"）
+     */
+    public static String compact(String keyword) {
+        String normalized = BigramIndex.normalize(keyword);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 汉字的去重读音，非汉字返回空数组
+     */
+    private static String[] readings(char c) {
+        if (Character.UnicodeScript.of(c) != Character.UnicodeScript.HAN) {
+            return NO_READINGS;
+        }
+        return READINGS.computeIfAbsent(c, key -> {
+            try {
+                String[] readings = PinyinHelper.toHanyuPinyinStringArray(key, FORMAT);
+                return readings == null ? NO_READINGS : new LinkedHashSet<>(List.of(readings)).toArray(String[]::new);
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                return NO_READINGS;
+            }
+        });
+    }
+}
@@ -0,0 +1,236 @@
+package com.xyex.service.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 不可变的前缀补全索引
+ * <p>
+ * 词条按归一化后的键排序存放在并列数组中（等价于按深度优先顺序展开的前缀树叶子），
+ * 同一前缀的词条必然连续，两次二分即可定位区间。区间内的 Top-N 通过权重的
+ * 稀疏表（区间最大值）逐个取出：每次取区间最大值后把区间一分为二放回候选堆，
+ * 复杂度 O(N log N)，与区间大小无关。
+ * <p>
+ * 查询只使用线程本地的候选堆，除返回结果外不产生额外对象。
+ */
+public final class PrefixSuggestIndex {
+
+    /**
+     * 单次查询返回条数上限
+     */
+    public static final int MAX_LIMIT = 20;
+
+    private static final PrefixSuggestIndex EMPTY = new PrefixSuggestIndex(new Term[0]);
+
+    /**
+     * 候选区间堆：每个候选占 3 个 int（最大值下标, 左端, 右端）
+     */
+    private static final ThreadLocal<int[]> HEAP = ThreadLocal.withInitial(() -> new int[3 * (2 * MAX_LIMIT + 2)]);
+
+    private final String[] keys;
+    private final Term[] terms;
+    private final long[] weights;
+
+    /**
+     * sparse[k][i]：区间 [i, i + 2^k) 中权重最大的下标
+     */
+    private final int[][] sparse;
+
+    /**
+     * 补全词条
+     *
+     * @param key    归一化后的匹配键
+     * @param text   展示文本
+     * @param id     关联ID
+     * @param weight 权重（热度）
+     */
+    public record Term(String key, String text, Long id, long weight) {
+    }
+
+    /**
+     * 结果回调，避免为每条结果创建中间对象
+     */
+    @FunctionalInterface
+    public interface Collector {
+        void accept(Term term);
+    }
+
+    private PrefixSuggestIndex(Term[] sorted) {
+        int n = sorted.length;
+        this.terms = sorted;
+        this.keys = new String[n];
+        this.weights = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sorted[i].key();
+            weights[i] = sorted[i].weight();
+        }
+        int levels = n == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(n);
+        this.sparse = new int[levels][];
+        sparse[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            sparse[0][i] = i;
+        }
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int size = n - (1 << k) + 1;
+            sparse[k] = new int[Math.max(size, 0)];
+            for (int i = 0; i < size; i++) {
+                sparse[k][i] = better(sparse[k - 1][i], sparse[k - 1][i + half]);
+            }
+        }
+    }
+
+    public static PrefixSuggestIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param terms 词条（键为空的会被忽略）
+     * @return 索引
+     */
+    public static PrefixSuggestIndex build(List<Term> terms) {
+        Term[] sorted = terms.stream()
+                .filter(term -> term.key() != null && !term.key().isEmpty())
+                .toArray(Term[]::new);
+        Arrays.sort(sorted, Comparator.comparing(Term::key));
+        return new PrefixSuggestIndex(sorted);
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * 按权重降序输出以 prefix 开头的前 limit 个词条
+     *
+     * @param prefix    归一化后的前缀
+     * @param limit     条数（不超过 {@link #MAX_LIMIT}）
+     * @param collector 结果回调
+     */
+    public void suggest(String prefix, int limit, Collector collector) {
+        limit = Math.min(limit, MAX_LIMIT);
+        if (prefix.isEmpty() || limit <= 0 || terms.length == 0) {
+            return;
+        }
+        int from = lowerBound(prefix);
+        int to = prefixEnd(prefix, from);
+        if (from >= to) {
+            return;
+        }
+
+        int[] heap = HEAP.get();
+        int size = push(heap, 0, rangeMax(from, to - 1), from, to - 1);
+        for (int emitted = 0; emitted < limit && size > 0; emitted++) {
+            int best = heap[0];
+            int left = heap[1];
+            int right = heap[2];
+            size = pop(heap, size);
+            collector.accept(terms[best]);
+            if (left <= best - 1) {
+                size = push(heap, size, rangeMax(left, best - 1), left, best - 1);
+            }
+            if (best + 1 <= right) {
+                size = push(heap, size, rangeMax(best + 1, right), best + 1, right);
+            }
+        }
+    }
+
+    /**
+     * 第一个不小于 prefix 的下标
+     */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 从 from 开始第一个不以 prefix 开头的下标
+     */
+    private int prefixEnd(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 闭区间 [left, right] 中权重最大的下标
+     */
+    private int rangeMax(int left, int right) {
+        int k = 31 - Integer.numberOfLeadingZeros(right - left + 1);
+        return better(sparse[k][left], sparse[k][right - (1 << k) + 1]);
+    }
+
+    /**
+     * 权重大者优先，相同时按键的字典序
+     */
+    private int better(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    private int push(int[] heap, int size, int best, int left, int right) {
+        int i = size;
+        heap[3 * i] = best;
+        heap[3 * i + 1] = left;
+        heap[3 * i + 2] = right;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (better(heap[3 * i], heap[3 * parent]) != heap[3 * i]) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+        return size + 1;
+    }
+
+    private int pop(int[] heap, int size) {
+        size--;
+        swap(heap, 0, size);
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left + 1 < size && better(heap[3 * (left + 1)], heap[3 * left]) == heap[3 * (left + 1)]
+                    ? left + 1 : left;
+            if (better(heap[3 * child], heap[3 * i]) != heap[3 * child]) {
+                break;
+            }
+            swap(heap, i, child);
+            i = child;
+        }
+        return size;
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        for (int j = 0; j < 3; j++) {
+            int tmp = heap[3 * a + j];
+            heap[3 * a + j] = heap[3 * b + j];
+            heap[3 * b + j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.xyex.service.trending;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按时间分桶的环形计数器
+ * <p>
+ * 每个桶覆盖 bucketMillis 毫秒，只记录该时段内有信号的商品，内存占用与活跃商品数成正比。
+ * 环上的槽位按桶序号取模复用，写入时发现槽位属于旧的时段就整体替换，过期数据随之丢弃。
+ */
+class TimeBucketRing {
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private static final class Bucket {
+        private final long epoch;
+        private final Map<Long, LongAdder[]> counts = new ConcurrentHashMap<>();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    TimeBucketRing(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * 累加信号
+     */
+    void add(Long commodityId, TrendingSignal signal, long delta, long now) {
+        long epoch = now / bucketMillis;
+        int slot = (int) (epoch % buckets.length());
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.epoch < epoch) {
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+        if (bucket.epoch != epoch) {
+            // 时钟落后于已轮转的槽位，丢弃这次信号
+            return;
+        }
+        bucket.counts.computeIfAbsent(commodityId, k -> newCounters())[signal.ordinal()].add(delta);
+    }
+
+    /**
+     * 汇总最近 span 个桶（含当前桶）
+     *
+     * @return 商品ID -> 各信号计数（按 {@link TrendingSignal} 序号）
+     */
+    Map<Long, long[]> sum(long now, int span) {
+        long current = now / bucketMillis;
+        Map<Long, long[]> result = new HashMap<>();
+        for (long epoch = current - Math.min(span, buckets.length()) + 1; epoch <= current; epoch++) {
+            Bucket bucket = buckets.get((int) (epoch % buckets.length()));
+            if (bucket == null || bucket.epoch != epoch) {
+                continue;
+            }
+            bucket.counts.forEach((id, counters) -> {
+                long[] total = result.computeIfAbsent(id, k -> new long[counters.length]);
+                for (int i = 0; i < counters.length; i++) {
+                    total[i] += counters[i].sum();
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 移除商品的全部计数
+     */
+    void remove(Long commodityId) {
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.counts.remove(commodityId);
+            }
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[TrendingSignal.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
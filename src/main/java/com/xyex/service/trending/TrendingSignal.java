@@ -0,0 +1,22 @@
+package com.xyex.service.trending;
+
+/**
+ * 热度信号类型
+ */
+public enum TrendingSignal {
+
+    /**
+     * 浏览详情
+     */
+    VIEW,
+
+    /**
+     * 收藏（取消收藏记为负数）
+     */
+    FAVOURITE,
+
+    /**
+     * 下单
+     */
+    ORDER
+}
@@ -0,0 +1,160 @@
+package com.xyex.service.trending;
+
+import com.xyex.entity.res.TrendingItemVO;
+import com.xyex.service.event.CommodityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热门商品滑动窗口统计
+ * <p>
+ * 浏览、收藏、下单信号写入两个环形计数器：分钟环（60 个桶，服务最近一小时）
+ * 与小时环（168 个桶，服务最近一天和一周）。定时任务对每个窗口汇总计数，
+ * 用大小为 K 的小顶堆选出前 K 名并整体替换排行快照，读取只访问内存。
+ * <p>
+ * 重算与删除剔除都会替换快照，二者串行执行；删除的商品在一周窗口内持续被过滤，
+ * 避免删除后迟到的信号让它重新上榜。
+ */
+@Slf4j
+@Component
+public class TrendingTracker {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private static final Comparator<TrendingItemVO> BY_SCORE = Comparator
+            .comparingLong(TrendingItemVO::getScore)
+            .thenComparing(TrendingItemVO::getCommodityId, Comparator.reverseOrder());
+
+    private final TimeBucketRing minuteRing = new TimeBucketRing(MINUTE_MILLIS, 60);
+    private final TimeBucketRing hourRing = new TimeBucketRing(HOUR_MILLIS, 168);
+
+    private final int topK;
+    private final long[] weights;
+
+    private volatile Map<TrendingWindow, List<TrendingItemVO>> rankings = new EnumMap<>(TrendingWindow.class);
+
+    /**
+     * 已删除的商品 -> 删除时间，超过最长窗口后清理
+     */
+    private final Map<Long, Long> deleted = new ConcurrentHashMap<>();
+
+    /**
+     * 串行化快照的替换
+     */
+    private final Object publishLock = new Object();
+
+    public TrendingTracker(@Value("${commodity.trending.top-k:100}") int topK,
+                           @Value("${commodity.trending.view-weight:1}") long viewWeight,
+                           @Value("${commodity.trending.favourite-weight:5}") long favouriteWeight,
+                           @Value("${commodity.trending.order-weight:10}") long orderWeight) {
+        this.topK = topK;
+        this.weights = new long[TrendingSignal.values().length];
+        this.weights[TrendingSignal.VIEW.ordinal()] = viewWeight;
+        this.weights[TrendingSignal.FAVOURITE.ordinal()] = favouriteWeight;
+        this.weights[TrendingSignal.ORDER.ordinal()] = orderWeight;
+    }
+
+    /**
+     * 记录热度信号
+     *
+     * @param commodityId 商品ID
+     * @param signal      信号类型
+     * @param delta       次数（取消收藏为负）
+     */
+    public void record(Long commodityId, TrendingSignal signal, long delta) {
+        if (commodityId == null || delta == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        minuteRing.add(commodityId, signal, delta, now);
+        hourRing.add(commodityId, signal, delta, now);
+    }
+
+    /**
+     * 读取排行快照
+     *
+     * @param window 统计窗口
+     * @param limit  返回条数（不超过 K）
+     * @return 按热度降序的商品
+     */
+    public List<TrendingItemVO> top(TrendingWindow window, int limit) {
+        List<TrendingItemVO> ranking = rankings.getOrDefault(window, List.of());
+        return ranking.subList(0, Math.min(Math.max(limit, 0), ranking.size()));
+    }
+
+    /**
+     * 定时重算各窗口排行
+     */
+    @Scheduled(fixedDelayString = "${commodity.trending.refresh-interval:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        deleted.values().removeIf(deletedAt -> now - deletedAt > 168 * HOUR_MILLIS);
+        synchronized (publishLock) {
+            Map<TrendingWindow, List<TrendingItemVO>> next = new EnumMap<>(TrendingWindow.class);
+            next.put(TrendingWindow.HOUR, rank(minuteRing.sum(now, 60)));
+            next.put(TrendingWindow.DAY, rank(hourRing.sum(now, 24)));
+            next.put(TrendingWindow.WEEK, rank(hourRing.sum(now, 168)));
+            rankings = next;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommodityChanged(CommodityChangedEvent event) {
+        if (event.type() != CommodityChangedEvent.Type.DELETE) {
+            return;
+        }
+        deleted.put(event.commodityId(), System.currentTimeMillis());
+        minuteRing.remove(event.commodityId());
+        hourRing.remove(event.commodityId());
+        // 已删除的商品立即从当前快照中剔除，不等下次重算
+        synchronized (publishLock) {
+            Map<TrendingWindow, List<TrendingItemVO>> next = new EnumMap<>(TrendingWindow.class);
+            rankings.forEach((window, ranking) -> next.put(window, ranking.stream()
+                    .filter(item -> !item.getCommodityId().equals(event.commodityId()))
+                    .toList()));
+            rankings = next;
+        }
+    }
+
+    /**
+     * 小顶堆选出前 K 名
+     */
+    private List<TrendingItemVO> rank(Map<Long, long[]> counts) {
+        PriorityQueue<TrendingItemVO> heap = new PriorityQueue<>(topK + 1, BY_SCORE);
+        counts.forEach((id, signals) -> {
+            if (deleted.containsKey(id)) {
+                return;
+            }
+            long score = 0;
+            for (int i = 0; i < signals.length; i++) {
+                score += weights[i] * signals[i];
+            }
+            if (score <= 0) {
+                return;
+            }
+            if (heap.size() == topK && score <= heap.peek().getScore()) {
+                return;
+            }
+            heap.offer(new TrendingItemVO(id, score, signals[TrendingSignal.VIEW.ordinal()],
+                    signals[TrendingSignal.FAVOURITE.ordinal()], signals[TrendingSignal.ORDER.ordinal()]));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+        List<TrendingItemVO> ranking = new ArrayList<>(heap);
+        ranking.sort(BY_SCORE.reversed());
+        return List.copyOf(ranking);
+    }
+}
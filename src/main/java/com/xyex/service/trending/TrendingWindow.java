@@ -0,0 +1,22 @@
+package com.xyex.service.trending;
+
+/**
+ * 热度统计窗口
+ */
+public enum TrendingWindow {
+
+    /**
+     * 最近一小时（分钟粒度）
+     */
+    HOUR,
+
+    /**
+     * 最近一天（小时粒度）
+     */
+    DAY,
+
+    /**
+     * 最近一周（小时粒度）
+     */
+    WEEK
+}
@@ -0,0 +1,24 @@
+package com.xyex.shared.enums;
+
+
+public interface OrderConstant {
+
+    //  region 支付状态
+
+    /**
+     * 未支付
+     */
+    int PAY_STATUS_UNPAID = 0;
+
+    /**
+     * 已支付
+     */
+    int PAY_STATUS_PAID = 1;
+
+    /**
+     * 超时未支付，已取消
+     */
+    int PAY_STATUS_CANCELLED = 2;
+
+    // endregion
+}
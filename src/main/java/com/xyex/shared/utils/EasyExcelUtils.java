@@ -1,6 +1,8 @@
 package com.xyex.shared.utils;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,12 +11,29 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 @Slf4j
 public class EasyExcelUtils {
 
+    /**
+     * 流式导出每次写入的行数
+     */
+    private static final int STREAM_CHUNK_SIZE = 2000;
+
+    /**
+     * 流式导出计算列宽的采样行数
+     */
+    private static final int WIDTH_SAMPLE_ROWS = 500;
+
+    /**
+     * 单个 sheet 的最大数据行数（xlsx 上限为 1048576 行）
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
     /**
      * 导出 Excel 文件(自动列宽)
      *
@@ -44,6 +63,90 @@ public class EasyExcelUtils {
         }
     }
 
+    /**
+     * 流式导出 Excel 文件
+     * <p>
+     * producer 逐行推送数据（例如在 MyBatis ResultHandler 中回调），每满一批写入一次，
+     * 列宽只按前若干行采样计算，内存占用与总行数无关；超过单 sheet 上限时自动新建 sheet。
+     *
+     * @param response HTTP 响应对象
+     * @param clazz    数据类型
+     * @param fileName 文件名(不含扩展名)
+     * @param producer 数据生产者，参数为逐行接收数据的回调
+     * @param <T>      数据类型泛型
+     * @return 导出行数
+     */
+    public static <T> long exportExcelStreaming(HttpServletResponse response,
+                                                Class<T> clazz,
+                                                String fileName,
+                                                Consumer<Consumer<T>> producer) {
+        ExcelWriter excelWriter = null;
+        try {
+            setExcelResponseHeader(response, fileName);
+            excelWriter = EasyExcel.write(response.getOutputStream(), clazz)
+                    .autoCloseStream(Boolean.FALSE)
+                    .registerWriteHandler(new SampledColumnWidthStyleStrategy(WIDTH_SAMPLE_ROWS))
+                    .build();
+            StreamingSheetWriter<T> sheetWriter = new StreamingSheetWriter<>(excelWriter, fileName);
+            producer.accept(sheetWriter::append);
+            sheetWriter.flush();
+            log.info("Excel 流式导出成功: {}.xlsx, 数据量: {}", fileName, sheetWriter.count);
+            return sheetWriter.count;
+        } catch (IOException e) {
+            log.error("Excel 导出失败: {}", fileName, e);
+            throw new RuntimeException("Excel 导出失败: " + e.getMessage(), e);
+        } finally {
+            if (excelWriter != null) {
+                excelWriter.finish();
+            }
+        }
+    }
+
+    /**
+     * 分批写入并按行数切换 sheet
+     */
+    private static class StreamingSheetWriter<T> {
+        private final ExcelWriter excelWriter;
+        private final String sheetName;
+        private final List<T> buffer = new ArrayList<>(STREAM_CHUNK_SIZE);
+        private WriteSheet sheet;
+        private int sheetNo = 0;
+        private int sheetRows = 0;
+        private long count = 0;
+
+        StreamingSheetWriter(ExcelWriter excelWriter, String sheetName) {
+            this.excelWriter = excelWriter;
+            this.sheetName = sheetName;
+            this.sheet = EasyExcel.writerSheet(sheetNo, sheetName).build();
+        }
+
+        void append(T row) {
+            buffer.add(row);
+            count++;
+            if (buffer.size() >= STREAM_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (buffer.isEmpty()) {
+                // 没有数据时也要写出表头
+                if (count == 0) {
+                    excelWriter.write(buffer, sheet);
+                }
+                return;
+            }
+            if (sheetRows + buffer.size() > MAX_ROWS_PER_SHEET) {
+                sheetNo++;
+                sheetRows = 0;
+                sheet = EasyExcel.writerSheet(sheetNo, sheetName + (sheetNo + 1)).build();
+            }
+            excelWriter.write(buffer, sheet);
+            sheetRows += buffer.size();
+            buffer.clear();
+        }
+    }
+
     /**
      * 导入 Excel 文件(同步读取)
      *
@@ -0,0 +1,74 @@
+package com.xyex.shared.utils;
+
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.metadata.Head;
+import com.alibaba.excel.metadata.data.WriteCellData;
+import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
+import com.alibaba.excel.write.style.column.AbstractColumnWidthStyleStrategy;
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 采样式自动列宽策略
+ * <p>
+ * 只根据表头和每个 sheet 的前 sampleRows 行计算列宽，之后的行不再参与计算，
+ * 状态大小只与列数相关，适合行数不确定的流式导出。
+ */
+public class SampledColumnWidthStyleStrategy extends AbstractColumnWidthStyleStrategy {
+
+    private static final int MAX_COLUMN_WIDTH = 255;
+
+    private final int sampleRows;
+
+    /**
+     * sheet 序号 -> (列序号 -> 当前列宽)
+     */
+    private final Map<Integer, Map<Integer, Integer>> columnWidths = new HashMap<>();
+
+    public SampledColumnWidthStyleStrategy(int sampleRows) {
+        this.sampleRows = sampleRows;
+    }
+
+    @Override
+    protected void setColumnWidth(WriteSheetHolder writeSheetHolder, List<WriteCellData<?>> cellDataList, Cell cell,
+                                  Head head, Integer relativeRowIndex, Boolean isHead) {
+        // relativeRowIndex 只在单次 write 内递增，这里使用 sheet 内的绝对行号
+        if (!isHead && cell.getRowIndex() > sampleRows) {
+            return;
+        }
+        int width = Math.min(dataLength(cellDataList, cell, isHead), MAX_COLUMN_WIDTH);
+        if (width <= 0) {
+            return;
+        }
+        Map<Integer, Integer> widths = columnWidths.computeIfAbsent(writeSheetHolder.getSheetNo(), k -> new HashMap<>());
+        Integer current = widths.get(cell.getColumnIndex());
+        if (current == null || width > current) {
+            widths.put(cell.getColumnIndex(), width);
+            writeSheetHolder.getSheet().setColumnWidth(cell.getColumnIndex(), width * 256);
+        }
+    }
+
+    private int dataLength(List<WriteCellData<?>> cellDataList, Cell cell, Boolean isHead) {
+        if (isHead) {
+            return cell.getStringCellValue().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (cellDataList == null || cellDataList.isEmpty()) {
+            return -1;
+        }
+        WriteCellData<?> cellData = cellDataList.get(0);
+        CellDataTypeEnum type = cellData.getType();
+        if (type == null) {
+            return -1;
+        }
+        return switch (type) {
+            case STRING -> cellData.getStringValue().getBytes(StandardCharsets.UTF_8).length;
+            case BOOLEAN -> cellData.getBooleanValue().toString().length();
+            case NUMBER -> cellData.getNumberValue().toString().length();
+            default -> -1;
+        };
+    }
+}
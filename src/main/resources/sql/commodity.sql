@@ -14,7 +14,11 @@ CREATE TABLE `commodity` (
   `createTime` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updateTime` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `isDelete` tinyint(4) DEFAULT '0' COMMENT '是否删除',
+  `version` int(11) NOT NULL DEFAULT '0' COMMENT '版本号（乐观锁）',
   PRIMARY KEY (`id`) USING BTREE,
   KEY `type_index` (`commodityTypeId`) USING BTREE,
   KEY `name_index` (`commodityName`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=1900439195794169858 DEFAULT CHARSET=utf8 ROW_FORMAT=DYNAMIC;
+
+-- 已有数据库升级：乐观锁版本号从 0 开始
+-- ALTER TABLE `commodity` ADD COLUMN `version` int(11) NOT NULL DEFAULT '0' COMMENT '版本号（乐观锁）' AFTER `isDelete`;
@@ -4,10 +4,15 @@ CREATE TABLE `commodity_order` (
   `commodityId` bigint(20) NOT NULL COMMENT '商品 ID',
   `remark` varchar(1024) DEFAULT NULL COMMENT '订单备注',
   `buyNumber` int(11) DEFAULT NULL COMMENT '购买数量',
+  `reservedNumber` int(11) NOT NULL DEFAULT '0' COMMENT '下单时预占的库存数量，超时取消时回补（0-未预占）',
   `paymentAmount` decimal(10,2) DEFAULT NULL COMMENT '订单总支付金额',
-  `payStatus` tinyint(4) DEFAULT '0' COMMENT '0-未支付 1-已支付',
+  `payStatus` tinyint(4) DEFAULT '0' COMMENT '0-未支付 1-已支付 2-已取消',
   `createTime` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updateTime` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `isDelete` tinyint(4) DEFAULT '0' COMMENT '是否删除',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  KEY `idx_payStatus_id` (`payStatus`, `id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1967076907777822722 DEFAULT CHARSET=utf8 ROW_FORMAT=DYNAMIC;
+
+-- 已有数据库升级：历史订单默认 0（未预占），超时取消时不回补库存
+-- ALTER TABLE `commodity_order` ADD COLUMN `reservedNumber` int(11) NOT NULL DEFAULT '0' COMMENT '下单时预占的库存数量，超时取消时回补（0-未预占）' AFTER `buyNumber`;
@@ -137,12 +137,14 @@ CREATE TABLE `commodity_order` (
   `commodityId` bigint(20) NOT NULL COMMENT '商品 ID',
   `remark` varchar(1024) DEFAULT NULL COMMENT '订单备注',
   `buyNumber` int(11) DEFAULT NULL COMMENT '购买数量',
+  `reservedNumber` int(11) NOT NULL DEFAULT '0' COMMENT '下单时预占的库存数量，超时取消时回补（0-未预占）',
   `paymentAmount` decimal(10,2) DEFAULT NULL COMMENT '订单总支付金额',
-  `payStatus` tinyint(4) DEFAULT '0' COMMENT '0-未支付 1-已支付',
+  `payStatus` tinyint(4) DEFAULT '0' COMMENT '0-未支付 1-已支付 2-已取消',
   `createTime` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updateTime` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `isDelete` tinyint(4) DEFAULT '0' COMMENT '是否删除',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_payStatus_id` (`payStatus`, `id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1967076907777822722 DEFAULT CHARSET=utf8 ROW_FORMAT=DYNAMIC COMMENT='商品订单';
 
 -- 商品表
@@ -162,6 +164,7 @@ CREATE TABLE `commodity` (
   `createTime` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updateTime` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `isDelete` tinyint(4) DEFAULT '0' COMMENT '是否删除',
+  `version` int(11) NOT NULL DEFAULT '0' COMMENT '版本号（乐观锁）',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1900439195794169858 DEFAULT CHARSET=utf8 ROW_FORMAT=DYNAMIC COMMENT='商品';
 
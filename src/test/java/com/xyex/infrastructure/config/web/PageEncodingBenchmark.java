@@ -0,0 +1,148 @@
+package com.xyex.infrastructure.config.web;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyex.entity.model.Commodity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 分页响应编码基准：一页 100 条商品的 Page&lt;Commodity&gt;，对比 JSON 与 Smile 的体积、gzip 后体积、
+ * 序列化 / 反序列化耗时和 gzip 耗时
+ * <p>
+ * 两个 ObjectMapper 取自 {@link WebMvcConfig}，与线上配置一致。数据用固定随机种子生成，字段长度接近真实商品。
+ * 不是单元测试，不随 mvn test 执行，按需手动运行：
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.xyex.infrastructure.config.web.PageEncodingBenchmark [迭代次数]
+ * </pre>
+ * 反序列化按客户端的方式解析为树（服务端的时间格式只配置了序列化）。单线程测量，先预热同样次数；
+ * 结果只用于两种编码之间的相对比较。
+ */
+public class PageEncodingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int DEFAULT_ITERATIONS = 20_000;
+    private static final String[] NAMES = {"显示器", "机械键盘", "二手自行车", "台灯", "教材 高等数学", "蓝牙耳机", "电饭煲", "羽毛球拍"};
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        WebMvcConfig config = new WebMvcConfig(null);
+        ObjectMapper json = config.objectMapper();
+        ObjectMapper smile = smileMapper(config);
+        Page<Commodity> page = samplePage();
+
+        System.out.printf("%-8s %8s %10s %12s %14s %12s%n",
+                "encoding", "bytes", "gzip bytes", "serialize", "deserialize", "gzip time");
+        run("JSON", json, page, iterations);
+        run("Smile", smile, page, iterations);
+    }
+
+    private static void run(String name, ObjectMapper mapper, Page<Commodity> page, int iterations) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(page);
+        // 预热
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(page);
+            mapper.readTree(bytes);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(page);
+        }
+        double serializeMicros = micros(start, iterations);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.readTree(bytes);
+        }
+        double deserializeMicros = micros(start, iterations);
+
+        // gzip 明显更慢，按十分之一次数测量
+        int gzipIterations = Math.max(iterations / 10, 1);
+        byte[] gzipped = gzip(bytes);
+        start = System.nanoTime();
+        for (int i = 0; i < gzipIterations; i++) {
+            gzipped = gzip(bytes);
+        }
+        double gzipMicros = micros(start, gzipIterations);
+
+        System.out.printf("%-8s %8d %10d %10.1fus %12.1fus %10.1fus%n",
+                name, bytes.length, gzipped.length, serializeMicros, deserializeMicros, gzipMicros);
+    }
+
+    /**
+     * 取 WebMvcConfig 注册的 Smile 转换器中的 ObjectMapper
+     */
+    private static ObjectMapper smileMapper(WebMvcConfig config) {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        config.extendMessageConverters(converters);
+        return converters.stream()
+                .filter(MappingJackson2SmileHttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2SmileHttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("WebMvcConfig 未注册 Smile 转换器"));
+    }
+
+    private static Page<Commodity> samplePage() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        List<Commodity> records = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            String name = NAMES[i % NAMES.length];
+            Commodity commodity = new Commodity();
+            commodity.setId(1800000000000000000L + i);
+            commodity.setCommodityName(name + " " + i);
+            commodity.setCommodityDescription(("九成新，" + name + "，校内自提，价格可小刀。").repeat(1 + random.nextInt(8)));
+            commodity.setCommodityAvatar(String.format("https://cdn.example.com/commodity/%016x%016x.jpg",
+                    random.nextLong(), random.nextLong()));
+            commodity.setDegree("9成新");
+            commodity.setCommodityTypeId(1L + i % 6);
+            commodity.setCommodityTypeName("分类" + i % 6);
+            commodity.setAdminId(1L);
+            commodity.setIsListed(1);
+            commodity.setCommodityInventory(random.nextInt(20));
+            commodity.setPrice(BigDecimal.valueOf(random.nextInt(50_000), 2));
+            commodity.setViewNum(random.nextInt(5000));
+            commodity.setFavourNum(random.nextInt(300));
+            commodity.setCreateTime(now.minusDays(i));
+            commodity.setUpdateTime(now);
+            commodity.setIsDelete(0);
+            commodity.setVersion(1 + random.nextInt(5));
+            commodity.setCreatedUserId("1");
+            commodity.setCreatedUserName("admin");
+            commodity.setUpdateUserId("1");
+            commodity.setUpdateUserName("admin");
+            commodity.setCreatedAt(now.minusDays(i));
+            commodity.setUpdatedAt(now);
+            commodity.setStatus("active");
+            records.add(commodity);
+        }
+        Page<Commodity> page = new Page<>(1, PAGE_SIZE);
+        page.setTotal(12_345);
+        page.setRecords(records);
+        return page;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static double micros(long startNanos, int iterations) {
+        return (System.nanoTime() - startNanos) / 1_000.0 / iterations;
+    }
+}
@@ -0,0 +1,134 @@
+package com.xyex.service.order;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分层时间轮：以 1ms 为一个 tick，逐个到期时间检查不早于、也不晚于到期 tick 触发
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 4;
+
+    /**
+     * 最高层一圈覆盖的 tick 数：64^4
+     */
+    private static final long RANGE = (long) WHEEL_SIZE * WHEEL_SIZE * WHEEL_SIZE * WHEEL_SIZE;
+
+    /**
+     * 各层边界两侧的延迟（tick）
+     */
+    private static final long[] BOUNDARY_DELAYS = {
+            1, 2, 63, 64, 65, 127, 128,
+            4095, 4096, 4097, 8191, 8192,
+            262_143, 262_144, 262_145};
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 37, 4095, 1_000_003})
+    void firesExactlyAtLevelBoundaries(long start) {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, start);
+        for (long delay : BOUNDARY_DELAYS) {
+            wheel.schedule(delay, start + delay);
+        }
+
+        for (long delay : BOUNDARY_DELAYS) {
+            assertEquals(List.of(), wheel.advance(start + delay - 1), "提前触发, delay=" + delay);
+            assertEquals(List.of(delay), wheel.advance(start + delay), "未按时触发, delay=" + delay);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesBeyondTopLevelRange() {
+        long start = 123;
+        long[] delays = {RANGE - 1, RANGE, RANGE + 1, RANGE + 64, 3 * RANGE + 7};
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, start);
+        for (long delay : delays) {
+            wheel.schedule(delay, start + delay);
+        }
+
+        for (long delay : delays) {
+            assertEquals(List.of(), wheel.advance(start + delay - 1), "提前触发, delay=" + delay);
+            assertEquals(List.of(delay), wheel.advance(start + delay), "未按时触发, delay=" + delay);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAfterCascade() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, 0);
+        // 第 2 层的任务在 tick 4096 下放到低层
+        wheel.schedule("level2", 5000);
+        // 超出范围的任务在最高层转一圈后重新放置
+        wheel.schedule("beyond", RANGE + 100);
+        wheel.schedule("kept", 5001);
+
+        assertEquals(List.of(), wheel.advance(4900));
+        assertTrue(wheel.cancel("level2"));
+        assertFalse(wheel.cancel("level2"));
+        assertEquals(List.of("kept"), wheel.advance(6000));
+
+        assertEquals(List.of(), wheel.advance(RANGE + 50));
+        assertTrue(wheel.cancel("beyond"));
+        assertEquals(List.of(), wheel.advance(RANGE + 200));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overdueFiresOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, 10_000);
+        wheel.schedule("past", 1);
+        wheel.schedule("now", 10_000);
+
+        assertEquals(List.of(), wheel.advance(10_000));
+        assertEquals(List.of("past", "now"), wheel.advance(10_001));
+
+        // 推进之后再调度已过期的任务
+        wheel.advance(20_000);
+        wheel.schedule("late", 15_000);
+        assertEquals(List.of("late"), wheel.advance(20_001));
+    }
+
+    @Test
+    void rescheduleKeepsLatestDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("order", 100);
+        wheel.schedule("order", 5000);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(4999));
+        assertEquals(List.of("order"), wheel.advance(5000));
+    }
+
+    @Test
+    void deadlineRoundsUpToTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("a", 15);
+        wheel.schedule("b", 20);
+
+        assertEquals(List.of(), wheel.advance(19));
+        assertEquals(List.of("a", "b"), wheel.advance(20));
+    }
+
+    @Test
+    void largeAdvanceReturnsEverythingDue() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_SIZE, LEVELS, 0);
+        List<Long> expected = new ArrayList<>();
+        for (long deadline = 1; deadline <= 300_000; deadline += 997) {
+            wheel.schedule(deadline, deadline);
+            expected.add(deadline);
+        }
+
+        assertEquals(expected, wheel.advance(300_000));
+        assertEquals(0, wheel.size());
+    }
+}
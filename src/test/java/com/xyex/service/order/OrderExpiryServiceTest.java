@@ -0,0 +1,169 @@
+package com.xyex.service.order;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.xyex.entity.model.Commodity;
+import com.xyex.entity.model.CommodityOrder;
+import com.xyex.entity.req.CommodityOrderDTO;
+import com.xyex.infrastructure.exception.BusinessException;
+import com.xyex.infrastructure.exception.ErrorCode;
+import com.xyex.infrastructure.utils.OptimisticRetryTemplate;
+import com.xyex.mapper.CommodityMapper;
+import com.xyex.mapper.CommodityOrderMapper;
+import com.xyex.mapper.CommodityScoreMapper;
+import com.xyex.mapper.CommodityTypeMapper;
+import com.xyex.service.cache.CatalogVersions;
+import com.xyex.service.cache.CommodityDetailCache;
+import com.xyex.service.counter.FavourCountBuffer;
+import com.xyex.service.counter.ViewCountAggregator;
+import com.xyex.service.dictionary.CommodityTypeDictionary;
+import com.xyex.service.excel.CommodityImportJobManager;
+import com.xyex.service.facet.CommodityFacetIndex;
+import com.xyex.service.flashsale.FlashSaleManager;
+import com.xyex.service.impl.CommodityServiceImpl;
+import com.xyex.service.inventory.InMemoryInventoryStore;
+import com.xyex.service.inventory.InventoryDeltaWriter;
+import com.xyex.service.inventory.InventoryJournal;
+import com.xyex.service.inventory.InventoryService;
+import com.xyex.service.recommend.SimilarCommodityIndex;
+import com.xyex.service.search.CommodityKeywordIndex;
+import com.xyex.service.search.CommoditySuggester;
+import com.xyex.service.trending.TrendingTracker;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 普通下单预占库存，超时未支付取消后库存回补
+ */
+class OrderExpiryServiceTest {
+
+    private static final long COMMODITY_ID = 7L;
+    private static final long ORDER_ID = 1001L;
+    private static final long STOCK = 10;
+
+    private final CommodityMapper commodityMapper = mock(CommodityMapper.class);
+    private final CommodityOrderMapper commodityOrderMapper = mock(CommodityOrderMapper.class);
+    private final CommodityOrderBatchWriter batchWriter = mock(CommodityOrderBatchWriter.class);
+    private final InventoryDeltaWriter deltaWriter = mock(InventoryDeltaWriter.class);
+    private final OrderIngestionPipeline pipeline = mock(OrderIngestionPipeline.class);
+    private final CommodityDetailCache detailCache = mock(CommodityDetailCache.class);
+    private final IdentifierGenerator identifierGenerator = mock(IdentifierGenerator.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private InventoryService inventoryService;
+    private OrderExpiryService orderExpiryService;
+    private CommodityServiceImpl commodityService;
+
+    /**
+     * 写线程提交的订单，超时取消时从这里查询
+     */
+    private final AtomicReference<CommodityOrder> written = new AtomicReference<>();
+
+    /**
+     * 没有 Spring 上下文，手动注册实体元数据，供 Lambda 查询条件解析列名
+     */
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Commodity.class);
+        TableInfoHelper.initTableInfo(assistant, CommodityOrder.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Commodity commodity = new Commodity();
+        commodity.setId(COMMODITY_ID);
+        commodity.setCommodityInventory((int) STOCK);
+        commodity.setIsDelete(0);
+        when(commodityMapper.selectOne(any())).thenReturn(commodity);
+        when(detailCache.get(eq(COMMODITY_ID), any())).thenReturn(commodity);
+        when(identifierGenerator.nextId(any())).thenReturn(ORDER_ID);
+        doAnswer(invocation -> {
+            written.set(invocation.getArgument(0));
+            return null;
+        }).when(pipeline).submit(any());
+        when(commodityOrderMapper.selectList(any()))
+                .thenAnswer(invocation -> written.get() == null ? List.of() : List.of(written.get()));
+        when(batchWriter.cancel(anyList())).thenAnswer(invocation -> Set.copyOf(invocation.<List<Long>>getArgument(0)));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        inventoryService = new InventoryService(commodityMapper, new InMemoryInventoryStore(), InventoryJournal.NONE,
+                deltaWriter, eventPublisher, 500);
+        // 支付超时为 0：下单后的下一个 tick 即到期
+        orderExpiryService = new OrderExpiryService(commodityOrderMapper, batchWriter, inventoryService,
+                transactionTemplate, 0, 1, 500);
+        commodityService = new CommodityServiceImpl(commodityMapper, commodityOrderMapper,
+                mock(CommodityScoreMapper.class), mock(CommodityTypeMapper.class), mock(CommodityKeywordIndex.class),
+                mock(CommoditySuggester.class), detailCache, mock(ViewCountAggregator.class),
+                mock(FavourCountBuffer.class), mock(CommodityImportJobManager.class), mock(CommodityFacetIndex.class),
+                inventoryService, pipeline, orderExpiryService, mock(FlashSaleManager.class), transactionTemplate,
+                mock(OptimisticRetryTemplate.class), identifierGenerator, mock(TrendingTracker.class),
+                mock(SimilarCommodityIndex.class), mock(CommodityTypeDictionary.class), mock(CatalogVersions.class),
+                eventPublisher);
+    }
+
+    @Test
+    void expiredOrderReleasesReservedStock() throws InterruptedException {
+        commodityService.addOrder(order(3));
+
+        assertEquals(3, written.get().getReservedNumber());
+        assertEquals(STOCK - 3, inventoryService.preload(COMMODITY_ID));
+
+        Thread.sleep(20);
+        orderExpiryService.tick();
+
+        verify(batchWriter).cancel(List.of(ORDER_ID));
+        verify(deltaWriter).adjust(List.of(Map.entry(COMMODITY_ID, 3L)));
+        assertEquals(STOCK, inventoryService.preload(COMMODITY_ID));
+    }
+
+    @Test
+    void rejectedOrderReleasesReservedStock() {
+        doThrow(new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "下单人数过多，请稍后重试"))
+                .when(pipeline).submit(any());
+
+        assertThrows(BusinessException.class, () -> commodityService.addOrder(order(4)));
+        assertEquals(STOCK, inventoryService.preload(COMMODITY_ID));
+    }
+
+    @Test
+    void insufficientStockRejectsOrder() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> commodityService.addOrder(order((int) STOCK + 1)));
+
+        assertEquals(ErrorCode.CONFLICT.getCode(), e.getCode());
+        assertNull(written.get());
+        assertEquals(STOCK, inventoryService.preload(COMMODITY_ID));
+    }
+
+    private static CommodityOrderDTO order(int buyNumber) {
+        CommodityOrderDTO dto = new CommodityOrderDTO();
+        dto.setCommodityId(COMMODITY_ID);
+        dto.setUserId(1L);
+        dto.setBuyNumber(buyNumber);
+        return dto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.xyex.service.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 共现模型：与暴力计算的余弦相似度比对
+ */
+class CooccurrenceModelTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void topNMatchesBruteForceCosine() {
+        Random random = new Random(3);
+        CooccurrenceModel model = new CooccurrenceModel(200);
+        Map<Long, Set<Long>> itemUsers = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextInt(500);
+            long commodityId = 100 + random.nextInt(300);
+            model.add(userId, commodityId, ordinal -> {
+            });
+            itemUsers.computeIfAbsent(commodityId, k -> new HashSet<>()).add(userId);
+        }
+
+        long excludedId = 150L;
+        int n = 5;
+        for (int ordinal = 0; ordinal < model.size(); ordinal++) {
+            long id = model.idOf(ordinal);
+            Map<Long, Double> expected = bruteForce(itemUsers, id, excludedId);
+            List<Double> expectedTop = expected.values().stream()
+                    .sorted((a, b) -> Double.compare(b, a))
+                    .limit(n)
+                    .toList();
+
+            CooccurrenceModel.Neighbours neighbours = model.topN(ordinal, n, other -> other == excludedId);
+            assertEquals(expectedTop.size(), neighbours.ids().length, "commodity " + id);
+            for (int k = 0; k < expectedTop.size(); k++) {
+                long neighbour = neighbours.ids()[k];
+                // 相似度相同的商品顺序不确定，按分数比对，并核对每个ID自己的分数
+                assertEquals(expectedTop.get(k), neighbours.similarities()[k], EPSILON, "commodity " + id);
+                assertEquals(expected.get(neighbour), neighbours.similarities()[k], EPSILON,
+                        "commodity " + id + " -> " + neighbour);
+            }
+        }
+    }
+
+    @Test
+    void repeatedInteractionCountsOnce() {
+        CooccurrenceModel model = new CooccurrenceModel(10);
+        List<Integer> touched = new ArrayList<>();
+        model.add(1, 10, touched::add);
+        model.add(1, 20, touched::add);
+        model.add(1, 20, touched::add);
+        model.add(2, 10, touched::add);
+        model.add(2, 20, touched::add);
+
+        // 重复交互不触发回调
+        assertEquals(List.of(0, 1, 0, 0, 1, 0), touched);
+        CooccurrenceModel.Neighbours neighbours = model.topN(0, 5, id -> false);
+        assertArrayEquals(new long[]{20}, neighbours.ids());
+        assertEquals(1.0, neighbours.similarities()[0], EPSILON);
+    }
+
+    @Test
+    void userItemsAreCapped() {
+        CooccurrenceModel model = new CooccurrenceModel(2);
+        model.add(1, 10, ordinal -> {
+        });
+        model.add(1, 20, ordinal -> {
+        });
+        model.add(1, 30, ordinal -> {
+        });
+
+        assertArrayEquals(new long[]{20}, model.topN(0, 5, id -> false).ids());
+        assertEquals(0, model.topN(2, 5, id -> false).ids().length);
+    }
+
+    /**
+     * 商品 id 与其他每个商品的余弦相似度（无共同用户的不出现）
+     */
+    private static Map<Long, Double> bruteForce(Map<Long, Set<Long>> itemUsers, long id, long excludedId) {
+        Set<Long> users = itemUsers.get(id);
+        Map<Long, Double> similarities = new HashMap<>();
+        for (Map.Entry<Long, Set<Long>> entry : itemUsers.entrySet()) {
+            if (entry.getKey() == id || entry.getKey() == excludedId) {
+                continue;
+            }
+            Set<Long> common = new HashSet<>(users);
+            common.retainAll(entry.getValue());
+            if (!common.isEmpty()) {
+                similarities.put(entry.getKey(),
+                        common.size() / Math.sqrt((double) users.size() * entry.getValue().size()));
+            }
+        }
+        return similarities;
+    }
+}
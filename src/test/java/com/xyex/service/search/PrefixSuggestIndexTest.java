@@ -0,0 +1,106 @@
+package com.xyex.service.search;
+
+import com.xyex.service.search.PrefixSuggestIndex.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 前缀补全索引：与暴力扫描逐条比对
+ */
+class PrefixSuggestIndexTest {
+
+    private static final String ALPHABET = "显示器键盘鼠标abc";
+
+    @Test
+    void matchesBruteForceOnRandomPrefixes() {
+        Random random = new Random(1);
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String key = randomKey(random, 1 + random.nextInt(6));
+            terms.add(new Term(key, key, (long) i, random.nextInt(100)));
+        }
+        PrefixSuggestIndex index = PrefixSuggestIndex.build(terms);
+        assertEquals(terms.size(), index.size());
+
+        for (int q = 0; q < 2000; q++) {
+            String prefix = randomKey(random, 1 + random.nextInt(3));
+            int limit = 1 + random.nextInt(PrefixSuggestIndex.MAX_LIMIT);
+            assertEquals(bruteForce(terms, prefix, limit), suggest(index, prefix, limit),
+                    "prefix=" + prefix + ", limit=" + limit);
+        }
+    }
+
+    @Test
+    void equalWeightsOrderByKey() {
+        List<Term> terms = List.of(
+                new Term("abc", "abc", 1L, 5),
+                new Term("ab", "ab", 2L, 5),
+                new Term("abd", "abd", 3L, 9),
+                new Term("b", "b", 4L, 100));
+        PrefixSuggestIndex index = PrefixSuggestIndex.build(terms);
+
+        assertEquals(List.of(3L, 2L, 1L), suggest(index, "ab", 10));
+        assertEquals(List.of(3L), suggest(index, "ab", 1));
+        assertEquals(List.of(4L), suggest(index, "b", 10));
+    }
+
+    @Test
+    void limitIsCapped() {
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            terms.add(new Term("k" + i, "k" + i, (long) i, i));
+        }
+        PrefixSuggestIndex index = PrefixSuggestIndex.build(terms);
+
+        assertEquals(PrefixSuggestIndex.MAX_LIMIT, suggest(index, "k", 1000).size());
+        assertEquals(bruteForce(terms, "k", PrefixSuggestIndex.MAX_LIMIT), suggest(index, "k", 1000));
+    }
+
+    @Test
+    void emptyCases() {
+        PrefixSuggestIndex index = PrefixSuggestIndex.build(List.of(
+                new Term("abc", "abc", 1L, 1),
+                new Term("", "blank", 2L, 100),
+                new Term(null, "null", 3L, 100)));
+
+        assertEquals(1, index.size());
+        assertTrue(suggest(index, "", 10).isEmpty());
+        assertTrue(suggest(index, "x", 10).isEmpty());
+        assertTrue(suggest(index, "abcd", 10).isEmpty());
+        assertTrue(suggest(index, "a", 0).isEmpty());
+        assertTrue(suggest(PrefixSuggestIndex.empty(), "a", 10).isEmpty());
+    }
+
+    private static List<Long> suggest(PrefixSuggestIndex index, String prefix, int limit) {
+        List<Long> ids = new ArrayList<>();
+        index.suggest(prefix, limit, term -> ids.add(term.id()));
+        return ids;
+    }
+
+    /**
+     * 权重降序，相同时按键的字典序，键也相同时按输入顺序
+     */
+    private static List<Long> bruteForce(List<Term> terms, String prefix, int limit) {
+        return terms.stream()
+                .filter(term -> term.key().startsWith(prefix))
+                .sorted(Comparator.comparingLong(Term::weight).reversed().thenComparing(Term::key))
+                .limit(limit)
+                .map(Term::id)
+                .toList();
+    }
+
+    private static String randomKey(Random random, int length) {
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return key.toString();
+    }
+}